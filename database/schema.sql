@@ -26,7 +26,8 @@ CREATE TABLE `users` (
   `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_username` (`username`),
-  UNIQUE KEY `uk_email` (`email`)
+  UNIQUE KEY `uk_email` (`email`),
+  KEY `idx_updated_id` (`updated_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
 
 -- ----------------------------
@@ -92,6 +93,8 @@ CREATE TABLE `articles` (
   `slug` VARCHAR(255) NOT NULL COMMENT 'URL别名',
   `content` LONGTEXT NOT NULL COMMENT '文章内容(Markdown)',
   `html_content` LONGTEXT DEFAULT NULL COMMENT '渲染后的HTML(可选缓存)',
+  `toc_json` TEXT DEFAULT NULL COMMENT '目录(JSON)',
+  `render_version` INT DEFAULT NULL COMMENT '渲染版本',
   `summary` TEXT DEFAULT NULL COMMENT '文章摘要',
   `cover_image` VARCHAR(255) DEFAULT NULL COMMENT '封面图片URL',
   `author_id` BIGINT UNSIGNED NOT NULL COMMENT '作者ID',
@@ -117,8 +120,10 @@ CREATE TABLE `articles` (
   KEY `idx_author_id` (`author_id`),
   KEY `idx_category_id` (`category_id`),
   KEY `idx_status_published` (`status`, `published_at`),
+  KEY `idx_top_published_id` (`is_top`, `published_at`, `id`),
+  KEY `idx_updated_id` (`updated_at`, `id`),
   KEY `idx_score` (`score`),
-  FULLTEXT KEY `ft_title_content` (`title`, `content`),
+  FULLTEXT KEY `ft_title_summary_content` (`title`, `summary`, `content`) WITH PARSER ngram,
   CONSTRAINT `fk_article_author` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`),
   CONSTRAINT `fk_article_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章主表';
@@ -175,6 +180,9 @@ CREATE TABLE `comments` (
   KEY `idx_article_id` (`article_id`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_parent_id` (`parent_id`),
+  KEY `idx_article_status_parent_created` (`article_id`, `status`, `parent_id`, `created_at`),
+  KEY `idx_status_created` (`status`, `created_at`),
+  KEY `idx_updated_id` (`updated_at`, `id`),
   CONSTRAINT `fk_comment_article` FOREIGN KEY (`article_id`) REFERENCES `articles` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_comment_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
   CONSTRAINT `fk_comment_parent` FOREIGN KEY (`parent_id`) REFERENCES `comments` (`id`) ON DELETE CASCADE
@@ -2,9 +2,7 @@ package com.myvlog.blog.aspect;
 
 import com.myvlog.blog.annotation.Log;
 import com.myvlog.blog.entity.OperationLog;
-import com.myvlog.blog.entity.User;
-import com.myvlog.blog.mapper.OperationLogMapper;
-import com.myvlog.blog.service.UserService;
+import com.myvlog.blog.security.AuthUser;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,8 +27,7 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class LogAspect {
 
-    private final OperationLogMapper operationLogMapper;
-    private final UserService userService;
+    private final OperationLogWriter operationLogWriter;
 
     @Pointcut("@annotation(com.myvlog.blog.annotation.Log)")
     public void logPointcut() {
@@ -81,29 +78,26 @@ public class LogAspect {
         }
 
         // HTTP Context
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
-        if (request != null) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            HttpServletRequest request = attributes.getRequest();
             operationLog.setIpAddress(getIpAddress(request));
             operationLog.setUserAgent(request.getHeader("User-Agent"));
         }
 
-        // User Info
+        // User Info (id travels with the principal, no lookup needed)
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            operationLog.setUsername(username);
-            
-            // Fetch User ID (Optimizable: Cache or put in UserDetails)
-            User user = userService.getByUsername(username);
-            if (user != null) {
-                operationLog.setUserId(user.getId());
+            operationLog.setUsername(((UserDetails) authentication.getPrincipal()).getUsername());
+            if (authentication.getPrincipal() instanceof AuthUser) {
+                operationLog.setUserId(((AuthUser) authentication.getPrincipal()).getId());
             }
         }
 
         operationLog.setExecutionTime(time);
         
-        // Save Async? For now sync
-        operationLogMapper.insert(operationLog);
+        // Written in batches off the request thread
+        operationLogWriter.submit(operationLog);
     }
     
     private String getIpAddress(HttpServletRequest request) {
@@ -0,0 +1,219 @@
+package com.myvlog.blog.aspect;
+
+import com.myvlog.blog.entity.OperationLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous writer for operation logs.
+ * Request threads only enqueue onto a bounded lock-free queue; a single drainer thread
+ * writes batches with one multi-row INSERT. When the queue is full the configured
+ * overflow policy applies:
+ * <ul>
+ *     <li>DROP - discard the new entry</li>
+ *     <li>BLOCK - wait up to blog.oplog.block-timeout-ms for space, then discard</li>
+ *     <li>SAMPLE - above half capacity keep only one in blog.oplog.sample-rate entries, discard when full</li>
+ * </ul>
+ * Metrics: oplog.queue.depth, oplog.dropped, oplog.batch.size, oplog.write.failures.
+ */
+@Component
+@Slf4j
+public class OperationLogWriter {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK, SAMPLE
+    }
+
+    private static final String INSERT_PREFIX = "INSERT INTO operation_logs "
+            + "(user_id, username, module, action, description, method, params, ip_address, user_agent, execution_time, created_at, updated_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ConcurrentLinkedQueue<OperationLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+    private final int sampleRate;
+
+    private final Counter dropped;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public OperationLogWriter(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${blog.oplog.capacity:10000}") int capacity,
+                              @Value("${blog.oplog.batch-size:200}") int batchSize,
+                              @Value("${blog.oplog.overflow:DROP}") OverflowPolicy policy,
+                              @Value("${blog.oplog.block-timeout-ms:50}") long blockTimeoutMs,
+                              @Value("${blog.oplog.sample-rate:10}") int sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.sampleRate = Math.max(1, sampleRate);
+
+        Gauge.builder("oplog.queue.depth", depth, AtomicInteger::get)
+                .description("Operation logs waiting to be written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("oplog.dropped")
+                .description("Operation logs discarded by the overflow policy")
+                .register(meterRegistry);
+        this.failures = Counter.builder("oplog.write.failures")
+                .description("Operation log batches that failed to insert")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("oplog.batch.size")
+                .description("Rows per operation log INSERT")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainer = new Thread(this::drainLoop, "oplog-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Queue a log entry without touching the database; never throws
+     */
+    public boolean submit(OperationLog operationLog) {
+        LocalDateTime now = LocalDateTime.now();
+        operationLog.setCreatedAt(now);
+        operationLog.setUpdatedAt(now);
+
+        if (policy == OverflowPolicy.SAMPLE && depth.get() >= capacity / 2
+                && sampleSequence.incrementAndGet() % sampleRate != 0) {
+            dropped.increment();
+            return false;
+        }
+
+        if (tryReserve()) {
+            queue.offer(operationLog);
+            return true;
+        }
+
+        if (policy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                if (tryReserve()) {
+                    queue.offer(operationLog);
+                    return true;
+                }
+            }
+        }
+
+        dropped.increment();
+        return false;
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (depth.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainOnce() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+    }
+
+    /**
+     * Write up to one batch; returns the number of entries taken off the queue
+     */
+    int drainOnce() {
+        List<OperationLog> batch = new ArrayList<>(Math.min(batchSize, depth.get()));
+        OperationLog next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        depth.addAndGet(-batch.size());
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * (ROW_PLACEHOLDER.length() + 1));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(batch.size() * 12);
+        for (int i = 0; i < batch.size(); i++) {
+            OperationLog entry = batch.get(i);
+            sql.append(i == 0 ? "" : ",").append(ROW_PLACEHOLDER);
+            args.add(entry.getUserId());
+            args.add(entry.getUsername());
+            args.add(entry.getModule());
+            args.add(entry.getAction());
+            args.add(entry.getDescription());
+            args.add(entry.getMethod());
+            args.add(entry.getParams());
+            args.add(entry.getIpAddress());
+            args.add(entry.getUserAgent());
+            args.add(entry.getExecutionTime());
+            args.add(entry.getCreatedAt());
+            args.add(entry.getUpdatedAt());
+        }
+
+        try {
+            jdbcTemplate.update(sql.toString(), args.toArray());
+            batchSizes.record(batch.size());
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Failed to write {} operation logs", batch.size(), e);
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (drainer != null) {
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (drainOnce() > 0) {
+            // Flush whatever is left before the DataSource closes
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.myvlog.blog.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of article list totals by normalized filter signature
+ * (list or search, status, category, tag and the viewer's role class), so paging through
+ * a list does not repeat the same COUNT(*) for every page.
+ * ArticleServiceImpl clears it on every article create, update, delete, publish and audit;
+ * the TTL bounds staleness for changes made elsewhere, such as tag or category deletes.
+ * Hit/miss counts are exported as cache.gets{cache=article.count}.
+ */
+@Component
+public class ArticleCountCache {
+
+    private final Cache<String, Long> cache;
+
+    public ArticleCountCache(MeterRegistry meterRegistry,
+                             @Value("${blog.cache.counts.ttl-seconds:30}") long ttlSeconds,
+                             @Value("${blog.cache.counts.max-size:1000}") long maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "article.count");
+    }
+
+    /**
+     * Cached total for a filter signature, or null on a miss
+     */
+    public Long get(String signature) {
+        return cache.getIfPresent(signature);
+    }
+
+    public void put(String signature, long total) {
+        cache.put(signature, total);
+    }
+
+    /**
+     * Drop all totals now and, inside a transaction, again after commit so a concurrent
+     * reader cannot re-cache a pre-commit count
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.myvlog.blog.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.myvlog.blog.dto.ArticleResponse;
+import com.myvlog.blog.utils.MarkdownUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cache for rendered article HTML and TOC.
+ * Entries are keyed by article id and only hit while the content hash still matches,
+ * so edited content is never served stale. Capacity is bounded by character weight;
+ * hit/miss counts are exported as cache.gets{cache=article.render}.
+ */
+@Component
+public class ArticleRenderCache {
+
+    private final Cache<Long, Entry> cache;
+
+    public ArticleRenderCache(MeterRegistry meterRegistry,
+                              @Value("${blog.cache.render.max-chars:16000000}") long maxChars) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxChars)
+                .weigher((Long id, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "article.render");
+    }
+
+    /**
+     * Get the render result for an article, parsing the Markdown only on a miss
+     * or when the content no longer matches the cached hash.
+     */
+    public MarkdownUtils.RenderResult get(Long articleId, String markdown) {
+        String hash = hash(markdown);
+        if (articleId != null) {
+            Entry cached = cache.getIfPresent(articleId);
+            if (cached != null && cached.contentHash.equals(hash)) {
+                return cached.result;
+            }
+        }
+
+        MarkdownUtils.RenderResult result = MarkdownUtils.render(markdown);
+        if (articleId != null) {
+            cache.put(articleId, new Entry(hash, result));
+        }
+        return result;
+    }
+
+    /**
+     * Seed the cache with a result rendered on the write path
+     */
+    public void put(Long articleId, String markdown, MarkdownUtils.RenderResult result) {
+        if (articleId != null) {
+            cache.put(articleId, new Entry(hash(markdown), result));
+        }
+    }
+
+    public void invalidate(Long articleId) {
+        if (articleId != null) {
+            cache.invalidate(articleId);
+        }
+    }
+
+    private static String hash(String markdown) {
+        if (markdown == null) {
+            return "";
+        }
+        return Hashing.murmur3_128().hashString(markdown, StandardCharsets.UTF_8).toString();
+    }
+
+    private static class Entry {
+        private final String contentHash;
+        private final MarkdownUtils.RenderResult result;
+
+        Entry(String contentHash, MarkdownUtils.RenderResult result) {
+            this.contentHash = contentHash;
+            this.result = result;
+        }
+
+        int weight() {
+            int weight = result.getHtml().length() + contentHash.length();
+            for (ArticleResponse.TocItem item : result.getToc()) {
+                weight += 32 + (item.getText() == null ? 0 : item.getText().length());
+            }
+            for (String link : result.getLinks()) {
+                weight += link.length();
+            }
+            return weight;
+        }
+    }
+}
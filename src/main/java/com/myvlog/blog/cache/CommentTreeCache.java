@@ -0,0 +1,70 @@
+package com.myvlog.blog.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.myvlog.blog.dto.CommentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache of assembled approved-comment trees by article id.
+ * CommentServiceImpl invalidates an article whenever one of its comments is added, deleted
+ * or audited; the TTL bounds staleness for anything else, such as a commenter renaming
+ * themselves. Cached trees are shared between requests and must be treated as read-only.
+ * Hit/miss counts are exported as cache.gets{cache=comment.tree}.
+ */
+@Component
+public class CommentTreeCache {
+
+    private final Cache<Long, List<CommentResponse>> cache;
+
+    public CommentTreeCache(MeterRegistry meterRegistry,
+                            @Value("${blog.cache.comments.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${blog.cache.comments.max-articles:2000}") long maxArticles) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxArticles)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "comment.tree");
+    }
+
+    /**
+     * Get the tree for an article, building it with the loader on a miss
+     */
+    public List<CommentResponse> get(Long articleId, Function<Long, List<CommentResponse>> loader) {
+        List<CommentResponse> cached = cache.getIfPresent(articleId);
+        if (cached == null) {
+            cached = List.copyOf(loader.apply(articleId));
+            cache.put(articleId, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Drop an article's tree now and, inside a transaction, again after commit so a
+     * concurrent reader cannot re-cache the pre-commit comments
+     */
+    public void invalidate(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        cache.invalidate(articleId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(articleId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.myvlog.blog.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.myvlog.blog.entity.ArticleLike;
+import com.myvlog.blog.mapper.ArticleLikeMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index over article_likes: whether a given user liked a given article. Misses are
+ * loaded lazily with one {@code user_id = ? AND article_id IN (...)} query for all the articles
+ * a request misses, so a load costs O(page) rows however popular the articles are, and are then
+ * kept in step with the table by like/unlike after their transaction commits. Capacity is bounded
+ * by the number of (article, user) flags held; hit/miss counts are exported as
+ * cache.gets{cache=article.likes}.
+ * <p>
+ * A load that overlaps a committed write to the same article is served but not cached, so a
+ * flag read before the write can never outlive it. Write sequences are striped by article id.
+ */
+@Component
+public class LikeIndex {
+
+    private static final int STRIPES = 64;
+
+    private final Cache<Key, Boolean> cache;
+    private final ArticleLikeMapper articleLikeMapper;
+    private final AtomicLongArray writeSequences = new AtomicLongArray(STRIPES);
+
+    public LikeIndex(ArticleLikeMapper articleLikeMapper,
+                     MeterRegistry meterRegistry,
+                     @Value("${blog.cache.likes.max-entries:5000000}") long maxEntries) {
+        this.articleLikeMapper = articleLikeMapper;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "article.likes");
+    }
+
+    public boolean hasLiked(Long articleId, Long userId) {
+        if (articleId == null || userId == null) {
+            return false;
+        }
+        return likedAmong(userId, List.of(articleId)).contains(articleId);
+    }
+
+    /**
+     * The subset of articleIds the user has liked, with at most one query for uncached flags
+     */
+    public Set<Long> likedAmong(Long userId, Collection<Long> articleIds) {
+        Set<Long> liked = new HashSet<>();
+        if (userId == null || articleIds.isEmpty()) {
+            return liked;
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long articleId : articleIds) {
+            Boolean flag = cache.getIfPresent(new Key(articleId, userId));
+            if (flag == null) {
+                missing.add(articleId);
+            } else if (flag) {
+                liked.add(articleId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            liked.addAll(load(userId, missing));
+        }
+        return liked;
+    }
+
+    /**
+     * Record a like written in the current transaction; applied once it commits
+     */
+    public void added(Long articleId, Long userId) {
+        afterCommit(articleId, () -> cache.put(new Key(articleId, userId), Boolean.TRUE));
+    }
+
+    /**
+     * Record an unlike written in the current transaction; applied once it commits
+     */
+    public void removed(Long articleId, Long userId) {
+        afterCommit(articleId, () -> cache.put(new Key(articleId, userId), Boolean.FALSE));
+    }
+
+    private Set<Long> load(Long userId, List<Long> articleIds) {
+        long[] sequences = new long[articleIds.size()];
+        for (int i = 0; i < articleIds.size(); i++) {
+            sequences[i] = writeSequences.get(stripe(articleIds.get(i)));
+        }
+
+        Set<Long> liked = new HashSet<>();
+        List<ArticleLike> rows = articleLikeMapper.selectList(new LambdaQueryWrapper<ArticleLike>()
+                .select(ArticleLike::getArticleId)
+                .eq(ArticleLike::getUserId, userId)
+                .in(ArticleLike::getArticleId, articleIds));
+        for (ArticleLike row : rows) {
+            liked.add(row.getArticleId());
+        }
+
+        for (int i = 0; i < articleIds.size(); i++) {
+            Long articleId = articleIds.get(i);
+            if (writeSequences.get(stripe(articleId)) == sequences[i]) {
+                Key key = new Key(articleId, userId);
+                cache.put(key, liked.contains(articleId));
+                // A write may have slipped in between the check and the put
+                if (writeSequences.get(stripe(articleId)) != sequences[i]) {
+                    cache.invalidate(key);
+                }
+            }
+        }
+        return liked;
+    }
+
+    private void afterCommit(Long articleId, Runnable apply) {
+        Runnable write = () -> {
+            writeSequences.incrementAndGet(stripe(articleId));
+            apply.run();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    private static int stripe(Long articleId) {
+        return (int) Math.floorMod(articleId, (long) STRIPES);
+    }
+
+    private record Key(long articleId, long userId) {
+    }
+}
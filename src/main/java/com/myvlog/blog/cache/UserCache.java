@@ -0,0 +1,92 @@
+package com.myvlog.blog.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.myvlog.blog.entity.User;
+import com.myvlog.blog.mapper.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of user rows by username, shared by the JWT filter and the services'
+ * current-user lookups so repeated requests within the TTL issue no user queries.
+ * UserServiceImpl invalidates an entry whenever it writes the row; the TTL bounds staleness
+ * for writes made elsewhere. Callers get a copy and may modify it freely.
+ * Hit/miss counts are exported as cache.gets{cache=user}.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, Optional<User>> cache;
+    private final UserMapper userMapper;
+
+    public UserCache(UserMapper userMapper,
+                     MeterRegistry meterRegistry,
+                     @Value("${blog.cache.user.ttl-seconds:30}") long ttlSeconds,
+                     @Value("${blog.cache.user.max-size:10000}") long maxSize) {
+        this.userMapper = userMapper;
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "user");
+    }
+
+    /**
+     * Load a user by username, or null if there is none
+     */
+    public User get(String username) {
+        if (username == null) {
+            return null;
+        }
+        Optional<User> cached = cache.getIfPresent(username);
+        if (cached == null) {
+            cached = Optional.ofNullable(userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUsername, username)));
+            cache.put(username, cached);
+        }
+        return cached.map(UserCache::copy).orElse(null);
+    }
+
+    /**
+     * Drop a user now and, inside a transaction, again after commit so a
+     * concurrent reader cannot re-cache the pre-commit row
+     */
+    public void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        evict(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(user);
+                }
+            });
+        }
+    }
+
+    private void evict(User user) {
+        if (user.getUsername() != null) {
+            cache.invalidate(user.getUsername());
+        } else if (user.getId() != null) {
+            cache.asMap().values().removeIf(cached -> cached.isPresent() && user.getId().equals(cached.get().getId()));
+        }
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy);
+        return copy;
+    }
+}
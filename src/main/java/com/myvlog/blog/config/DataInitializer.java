@@ -97,6 +97,63 @@ public class DataInitializer implements CommandLineRunner {
                 log.info("Score column check: " + e.getMessage());
             }
 
+            // Add persisted render columns to articles if not exists
+            try {
+                jdbcTemplate.execute("ALTER TABLE articles ADD COLUMN toc_json TEXT DEFAULT NULL COMMENT '目录(JSON)'");
+                log.info("Added toc_json to articles table.");
+            } catch (Exception e) {
+                // Ignore if column exists
+                log.info("toc_json column check: " + e.getMessage());
+            }
+            try {
+                jdbcTemplate.execute("ALTER TABLE articles ADD COLUMN render_version INT DEFAULT NULL COMMENT '渲染版本'");
+                log.info("Added render_version to articles table.");
+            } catch (Exception e) {
+                // Ignore if column exists
+                log.info("render_version column check: " + e.getMessage());
+            }
+
+            // Rebuild the articles FULLTEXT index over title, summary and content with the ngram parser so CJK queries match
+            try {
+                String ddl = (String) jdbcTemplate.queryForMap("SHOW CREATE TABLE articles").get("Create Table");
+                if (ddl != null && !ddl.contains("ft_title_summary_content")) {
+                    if (ddl.contains("ft_title_content")) {
+                        jdbcTemplate.execute("ALTER TABLE articles DROP INDEX ft_title_content");
+                    }
+                    jdbcTemplate.execute("ALTER TABLE articles ADD FULLTEXT INDEX ft_title_summary_content (title, summary, content) WITH PARSER ngram");
+                    log.info("Rebuilt articles FULLTEXT index as ft_title_summary_content with ngram parser.");
+                }
+            } catch (Exception e) {
+                log.info("Fulltext index check: " + e.getMessage());
+            }
+
+            // Composite index so paginated comment threads and replies are range scans
+            try {
+                jdbcTemplate.execute("ALTER TABLE comments ADD INDEX idx_article_status_parent_created (article_id, status, parent_id, created_at)");
+                log.info("Added idx_article_status_parent_created to comments table.");
+            } catch (Exception e) {
+                // Ignore if index exists
+                log.info("Comments thread index check: " + e.getMessage());
+            }
+
+            // Index for the moderation queue, filtered by status and ordered by created_at
+            try {
+                jdbcTemplate.execute("ALTER TABLE comments ADD INDEX idx_status_created (status, created_at)");
+                log.info("Added idx_status_created to comments table.");
+            } catch (Exception e) {
+                // Ignore if index exists
+                log.info("Comments moderation index check: " + e.getMessage());
+            }
+
+            // Index matching the article list order, so keyset (scroll) pages seek instead of skipping rows
+            try {
+                jdbcTemplate.execute("ALTER TABLE articles ADD INDEX idx_top_published_id (is_top, published_at, id)");
+                log.info("Added idx_top_published_id to articles table.");
+            } catch (Exception e) {
+                // Ignore if index exists
+                log.info("Articles keyset index check: " + e.getMessage());
+            }
+
             // Add preferences column to users if not exists
             try {
                 jdbcTemplate.execute("ALTER TABLE users ADD COLUMN preferences TEXT DEFAULT NULL COMMENT '用户偏好设置'");
@@ -353,6 +410,17 @@ public class DataInitializer implements CommandLineRunner {
                 } catch (Exception e) { /* Ignore */ }
             }
 
+            // Index for incremental backups, which scan rows past an (updated_at, id) watermark
+            for (String table : new String[]{"articles", "comments", "users"}) {
+                try {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " ADD INDEX idx_updated_id (updated_at, id)");
+                    log.info("Added idx_updated_id to " + table + ".");
+                } catch (Exception e) {
+                    // Ignore if index exists
+                    log.info("Backup watermark index check on " + table + ": " + e.getMessage());
+                }
+            }
+
             log.info("Database schema update completed.");
         } catch (Exception e) {
             log.error("Database schema update failed: " + e.getMessage());
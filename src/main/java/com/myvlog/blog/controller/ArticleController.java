@@ -4,7 +4,9 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.myvlog.blog.dto.ArticleRequest;
 import com.myvlog.blog.dto.ArticleResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.enums.ArticleStatus;
+import com.myvlog.blog.enums.CountMode;
 import com.myvlog.blog.service.ArticleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -26,11 +28,22 @@ public class ArticleController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long tagId,
-            @RequestParam(defaultValue = "newest") String sort) { // newest, hottest
+            @RequestParam(defaultValue = "newest") String sort, // newest, hottest
+            @RequestParam(defaultValue = "exact") String count) { // exact, approx, none
         
         Page<com.myvlog.blog.entity.Article> pageParam = new Page<>(page, size);
         // Force status to PUBLISHED for public list
-        return ResponseEntity.ok(articleService.getArticleList(pageParam, categoryId, tagId, ArticleStatus.PUBLISHED.name(), sort));
+        return ResponseEntity.ok(articleService.getArticleList(pageParam, categoryId, tagId, ArticleStatus.PUBLISHED.name(), sort, CountMode.of(count)));
+    }
+
+    // Public: Infinite-scroll list, newest first; pass back nextCursor for the following page
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ArticleResponse>> scrollArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long tagId) {
+        return ResponseEntity.ok(articleService.scrollArticles(categoryId, tagId, ArticleStatus.PUBLISHED.name(), cursor, size));
     }
 
     // Public: Get Detail by ID
@@ -102,10 +115,23 @@ public class ArticleController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long tagId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "exact") String count) {
         
         Page<com.myvlog.blog.entity.Article> pageParam = new Page<>(page, size);
-        return ResponseEntity.ok(articleService.getArticleList(pageParam, categoryId, tagId, status));
+        return ResponseEntity.ok(articleService.getArticleList(pageParam, categoryId, tagId, status, "newest", CountMode.of(count)));
+    }
+
+    // Admin: List all articles by cursor
+    @GetMapping("/admin/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<ArticleResponse>> scrollAdminArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long tagId,
+            @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(articleService.scrollArticles(categoryId, tagId, status, cursor, size));
     }
 
     // Admin: Audit
@@ -1,18 +1,14 @@
 package com.myvlog.blog.controller;
 
 import com.myvlog.blog.annotation.Log;
-import com.myvlog.blog.entity.User;
+import com.myvlog.blog.security.AuthUser;
 import com.myvlog.blog.service.BackupService;
-import com.myvlog.blog.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,8 +21,13 @@ import java.io.File;
 public class BackupController {
 
     private final BackupService backupService;
-    private final UserService userService;
 
+    /**
+     * Run a backup now and download the archive. The zip holds manifest.json plus
+     * {@code <table>.json} and {@code <table>.keys} entries (gzipped, with a .gz suffix, when
+     * blog.backup.parallelism is above 1); an incremental or differential archive also has
+     * {@code <table>.deleted.json} and only restores on top of the archives in the manifest's chain.
+     */
     @GetMapping("/export")
     @Log(module = "Backup", action = "Export", description = "Manual data export")
     public ResponseEntity<Resource> exportData() {
@@ -44,13 +45,9 @@ public class BackupController {
     }
     
     private void checkAdmin() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            User user = userService.getByUsername(username);
-            if (user != null && "admin".equals(user.getRole())) {
-                return;
-            }
+        AuthUser currentUser = AuthUser.current();
+        if (currentUser != null && currentUser.isAdmin()) {
+            return;
         }
         throw new RuntimeException("Access denied: Admin only");
     }
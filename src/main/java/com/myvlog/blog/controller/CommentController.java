@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.myvlog.blog.dto.CommentAdminDto;
 import com.myvlog.blog.dto.CommentRequest;
 import com.myvlog.blog.dto.CommentResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.entity.Comment;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.service.CommentService;
@@ -34,6 +35,24 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsByArticleId(articleId));
     }
 
+    // Public: Get top-level comments for an article, one cursor page at a time
+    @GetMapping("/article/{articleId}/threads")
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentThreads(
+            @PathVariable Long articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(commentService.getCommentThreads(articleId, cursor, size));
+    }
+
+    // Public: Expand the direct replies of a comment, one cursor page at a time
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPage<CommentResponse>> getReplies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(commentService.getReplies(id, cursor, size));
+    }
+
     // Public/User: Add comment (Auth optional if guest comments enabled)
     @PostMapping
     public ResponseEntity<CommentResponse> addComment(@Valid @RequestBody CommentRequest request, 
@@ -56,8 +75,20 @@ public class CommentController {
     public ResponseEntity<Page<CommentAdminDto>> getAdminComments(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(commentService.getCommentPage(page, size, status));
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long articleId) {
+        return ResponseEntity.ok(commentService.getCommentPage(page, size, status, articleId));
+    }
+
+    // Admin: Moderation queue by cursor, newest first
+    @GetMapping("/admin/feed")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<CommentAdminDto>> getAdminCommentFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(commentService.getCommentFeed(status, articleId, cursor, size));
     }
 
     // User/Admin: Delete comment
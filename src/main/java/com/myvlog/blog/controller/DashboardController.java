@@ -4,22 +4,21 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.myvlog.blog.dto.ArticleHeatDto;
 import com.myvlog.blog.dto.DashboardStats;
+import com.myvlog.blog.dto.TrafficSeries;
 import com.myvlog.blog.entity.Article;
 import com.myvlog.blog.entity.Project;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.service.ArticleService;
-import com.myvlog.blog.service.CategoryService;
-import com.myvlog.blog.service.ProjectService;
-import com.myvlog.blog.service.UserService;
+import com.myvlog.blog.stats.HotRanking;
+import com.myvlog.blog.stats.SiteStats;
+import com.myvlog.blog.stats.TrafficStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -36,49 +35,30 @@ import java.util.stream.Collectors;
 public class DashboardController {
 
     private final ArticleService articleService;
-    private final ProjectService projectService;
-    private final UserService userService;
-    private final CategoryService categoryService;
+    private final HotRanking hotRanking;
+    private final SiteStats siteStats;
+    private final TrafficStats trafficStats;
 
     /**
      * 获取仪表盘核心统计数据
      * 包括：文章数、项目数、总浏览量、用户数、分类数
+     * 直接返回内存中增量维护的快照 (asOf 为最近一次精确重算时间)，接口本身不访问数据库
      */
     @GetMapping("/stats")
     public ResponseEntity<DashboardStats> getStats() {
-        // 1. 获取当前登录用户的认证信息 (可选，用于日志记录)
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated() && (authentication.getPrincipal() instanceof UserDetails)) {
-            String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            log.info("Authenticated dashboard stats request from user: {}", username);
-        } else {
-            log.info("Guest dashboard stats request");
-        }
-        
-        DashboardStats.DashboardStatsBuilder builder = DashboardStats.builder();
-        
-        try {
-            // 2. 获取全站全局统计数据 (对所有访客公开)
-            long articleCount = articleService.count(); // 文章总数
-            long projectCount = projectService.count(); // 项目总数
-            long userCount = userService.count();       // 注册用户总数
-            long categoryCount = categoryService.count(); // 文章分类总数
-            
-            builder.articleCount(articleCount);
-            builder.projectCount(projectCount);
-            builder.userCount(userCount);
-            builder.categoryCount(categoryCount);
-            
-            // 3. 计算全站总浏览量
-            List<Article> allArticles = articleService.list(new LambdaQueryWrapper<Article>().select(Article::getViewCount));
-            builder.totalViews(allArticles.stream().mapToLong(a -> a.getViewCount() == null ? 0 : a.getViewCount()).sum());
-            
-        } catch (Exception e) {
-            log.error("Error calculating dashboard stats", e);
-            builder.articleCount(0L).projectCount(0L).totalViews(0L).userCount(0L).categoryCount(0L);
-        }
-        
-        return ResponseEntity.ok(builder.build());
+        return ResponseEntity.ok(siteStats.snapshot());
+    }
+
+    /**
+     * 获取站点流量趋势
+     * daily 为最近 days 天的每日 PV/UV/文章阅读/新增评论 (含尚未落库的部分)，
+     * minutes 为最近 24 小时每分钟的 PV，直接读取内存环形缓冲区
+     * 仅限管理员访问
+     */
+    @GetMapping("/traffic")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrafficSeries> getTraffic(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(trafficStats.series(Math.min(days, 366)));
     }
 
     /**
@@ -88,6 +68,13 @@ public class DashboardController {
     @GetMapping("/heat")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ArticleHeatDto>> getHeatData() {
+        // 优先读取内存中的实时热度排行，加载完成前回退到数据库
+        if (hotRanking.isReady()) {
+            return ResponseEntity.ok(hotRanking.top(10).stream()
+                    .map(r -> new ArticleHeatDto(r.getTitle(), (int) r.getViews(), r.getScore()))
+                    .collect(Collectors.toList()));
+        }
+
         // 1. 使用 MyBatis-Plus 的 Page 分页功能获取前 10 条数据
         Page<Article> page = new Page<>(1, 10);
         LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
@@ -3,7 +3,9 @@ package com.myvlog.blog.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.myvlog.blog.dto.ArticleResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.enums.CountMode;
 import com.myvlog.blog.service.ArticleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -25,8 +27,20 @@ public class SearchController {
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long tagId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count) {
         
-        return ResponseEntity.ok(articleService.searchArticles(new Page<>(page, size), q, categoryId, tagId));
+        return ResponseEntity.ok(articleService.searchArticles(new Page<>(page, size), q, categoryId, tagId, CountMode.of(count)));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ArticleResponse>> scroll(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long tagId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(articleService.scrollSearch(q, categoryId, tagId, cursor, size));
     }
 }
@@ -1,14 +1,10 @@
 package com.myvlog.blog.controller;
 
-import com.myvlog.blog.entity.User;
 import com.myvlog.blog.entity.Webhook;
-import com.myvlog.blog.service.UserService;
+import com.myvlog.blog.security.AuthUser;
 import com.myvlog.blog.service.WebhookService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,16 +15,11 @@ import java.util.List;
 public class WebhookController {
 
     private final WebhookService webhookService;
-    private final UserService userService;
 
     private void checkAdmin() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            User user = userService.getByUsername(username);
-            if (user != null && "admin".equals(user.getRole())) {
-                return;
-            }
+        AuthUser currentUser = AuthUser.current();
+        if (currentUser != null && currentUser.isAdmin()) {
+            return;
         }
         throw new RuntimeException("Access denied: Admin only");
     }
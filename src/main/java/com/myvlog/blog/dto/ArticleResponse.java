@@ -39,6 +39,9 @@ public class ArticleResponse {
     
     private Double score;
 
+    // Whether the current user has liked this article (false for guests)
+    private Boolean liked;
+
     private LocalDateTime publishedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,55 @@
+package com.myvlog.blog.dto;
+
+import com.myvlog.blog.enums.BackupType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * manifest.json of a backup archive.
+ * To restore, apply the archives in {@code chain} order; for each table delete the keys listed
+ * in {@code <table>.deleted.json}, then upsert the rows in {@code <table>.json}. A parallel
+ * export stores each entry gzipped instead, under the same name with a .gz suffix.
+ */
+@Data
+public class BackupManifest {
+    private BackupType type;
+
+    // This archive's file name
+    private String file;
+
+    // Full archive the chain starts from (this file for a full backup)
+    private String base;
+
+    private LocalDateTime baseCreatedAt;
+
+    // Archive whose watermarks and key lists this one was taken against; null for a full backup
+    private String parent;
+
+    // Archives to apply in order, base first and this file last
+    private List<String> chain = new ArrayList<>();
+
+    private LocalDateTime createdAt;
+
+    private Map<String, TableState> tables = new LinkedHashMap<>();
+
+    @Data
+    public static class TableState {
+        // Highest (updated_at, key) exported so far in the chain; null while the table is empty
+        private LocalDateTime watermarkUpdatedAt;
+        private String watermarkKey;
+
+        // Rows in <table>.json
+        private long rows;
+
+        // Keys in <table>.deleted.json
+        private long deleted;
+
+        // Keys in <table>.keys, i.e. rows present when the archive was taken
+        private long keys;
+    }
+}
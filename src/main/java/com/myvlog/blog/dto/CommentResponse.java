@@ -24,6 +24,9 @@ public class CommentResponse {
     private CommentStatus status;
     private Boolean isAdminReply;
     private LocalDateTime createdAt;
+
+    // Approved direct replies, filled by the paginated thread endpoints
+    private Long replyCount;
     
     // Nested replies
     private List<CommentResponse> replies = new ArrayList<>();
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,7 @@ public class DashboardStats {
     private Long totalViews;
     private Long categoryCount;
     private Long userCount;
+
+    // When the totals were last recomputed exactly; events since then are already applied
+    private LocalDateTime asOf;
 }
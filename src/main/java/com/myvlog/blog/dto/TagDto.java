@@ -7,4 +7,6 @@ public class TagDto {
     private Long id;
     private String name;
     private String slug;
+    // Set on search results when the tag matched the query
+    private Boolean highlighted;
 }
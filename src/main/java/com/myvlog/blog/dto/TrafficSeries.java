@@ -0,0 +1,28 @@
+package com.myvlog.blog.dto;
+
+import com.myvlog.blog.entity.Statistics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrafficSeries {
+    // One row per day, oldest first; today's row includes traffic not yet flushed
+    private List<Statistics> daily;
+
+    // Page views per minute over the last 24 hours, oldest first
+    private List<MinutePoint> minutes;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MinutePoint {
+        private LocalDateTime minute;
+        private Long pv;
+    }
+}
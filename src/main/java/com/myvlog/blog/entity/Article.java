@@ -22,6 +22,8 @@ public class Article extends BaseEntity {
     private String slug;
     private String content;
     private String htmlContent;
+    private String tocJson;
+    private Integer renderVersion;
     private String summary;
     private String coverImage;
     private Long authorId;
@@ -0,0 +1,24 @@
+package com.myvlog.blog.enums;
+
+/**
+ * Kind of archive in a backup chain
+ */
+public enum BackupType {
+    // Every row of every table; starts a new chain
+    FULL,
+    // Rows changed since the previous archive in the chain
+    INCREMENTAL,
+    // Rows changed since the chain's full base
+    DIFFERENTIAL;
+
+    public String suffix() {
+        switch (this) {
+            case FULL:
+                return "full";
+            case INCREMENTAL:
+                return "inc";
+            default:
+                return "diff";
+        }
+    }
+}
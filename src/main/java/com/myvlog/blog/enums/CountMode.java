@@ -0,0 +1,26 @@
+package com.myvlog.blog.enums;
+
+import com.myvlog.blog.exception.BusinessException;
+
+/**
+ * How a paginated list computes its total
+ */
+public enum CountMode {
+    // Always run COUNT(*)
+    EXACT,
+    // Reuse a recently cached total for the same filter, counting only on a miss
+    APPROX,
+    // Skip counting; the page reports a total of -1 (unknown)
+    NONE;
+
+    public static CountMode of(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid count mode: " + value);
+        }
+    }
+}
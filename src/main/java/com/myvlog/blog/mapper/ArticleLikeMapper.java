@@ -2,8 +2,17 @@ package com.myvlog.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.myvlog.blog.entity.ArticleLike;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface ArticleLikeMapper extends BaseMapper<ArticleLike> {
+
+    /**
+     * Idempotent like: returns 1 if the row was inserted, 0 if uk_article_user already had it
+     */
+    @Insert("INSERT IGNORE INTO article_likes (article_id, user_id, created_at, updated_at) " +
+            "VALUES (#{articleId}, #{userId}, NOW(), NOW())")
+    int insertIgnore(@Param("articleId") Long articleId, @Param("userId") Long userId);
 }
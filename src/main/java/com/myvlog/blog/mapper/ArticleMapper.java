@@ -1,9 +1,117 @@
 package com.myvlog.blog.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.myvlog.blog.entity.Article;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ArticleMapper extends BaseMapper<Article> {
+
+    /**
+     * Relevance-ranked match against the ft_title_summary_content (ngram) FULLTEXT index.
+     * The caller's visibility/category/tag filter is applied before the limit, so rows the
+     * caller cannot see never take up hits. Rows carry id, title, summary and relevance.
+     */
+    @Select("<script>" +
+            "SELECT id, title, summary, MATCH(title, summary, content) AGAINST(#{keyword} IN NATURAL LANGUAGE MODE) AS relevance " +
+            "FROM articles " +
+            "WHERE MATCH(title, summary, content) AGAINST(#{keyword} IN NATURAL LANGUAGE MODE) " +
+            "<if test=\"ew != null and ew.sqlSegment != null and ew.sqlSegment != ''\">AND (${ew.sqlSegment}) </if>" +
+            "ORDER BY relevance DESC LIMIT #{limit}" +
+            "</script>")
+    List<Map<String, Object>> searchFullText(@Param("keyword") String keyword, @Param("limit") int limit,
+                                             @Param(Constants.WRAPPER) Wrapper<Article> filter);
+
+    /**
+     * The given ids that pass the caller's visibility/category/tag filter, for search backends
+     * that rank outside the database
+     */
+    @Select("<script>" +
+            "SELECT id FROM articles WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "<if test=\"ew != null and ew.sqlSegment != null and ew.sqlSegment != ''\">AND (${ew.sqlSegment}) </if>" +
+            "</script>")
+    List<Long> selectIdsMatching(@Param("ids") Collection<Long> ids, @Param(Constants.WRAPPER) Wrapper<Article> filter);
+
+    /**
+     * Substring match for keywords shorter than the ngram token size, which the FULLTEXT index
+     * cannot find; newest first, same filter and row shape as searchFullText
+     */
+    @Select("<script>" +
+            "SELECT id, title, summary, 0 AS relevance FROM articles " +
+            "WHERE (title LIKE CONCAT('%', #{keyword}, '%') OR summary LIKE CONCAT('%', #{keyword}, '%') " +
+            "OR content LIKE CONCAT('%', #{keyword}, '%')) " +
+            "<if test=\"ew != null and ew.sqlSegment != null and ew.sqlSegment != ''\">AND (${ew.sqlSegment}) </if>" +
+            "ORDER BY id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Map<String, Object>> searchLike(@Param("keyword") String keyword, @Param("limit") int limit,
+                                         @Param(Constants.WRAPPER) Wrapper<Article> filter);
+
+    /**
+     * Recount approved comments of one article in a single statement
+     */
+    @Update("UPDATE articles SET comment_count = " +
+            "(SELECT COUNT(*) FROM comments WHERE article_id = #{articleId} AND status = 'approved') " +
+            "WHERE id = #{articleId}")
+    int recountComments(@Param("articleId") Long articleId);
+
+    /**
+     * Recompute comment_count for articles with ids in [fromId, toId] from one GROUP BY over that
+     * range of comments. Only rows whose stored count differs are written; returns how many.
+     */
+    @Update("UPDATE articles a LEFT JOIN (" +
+            "SELECT article_id, COUNT(*) AS cnt FROM comments " +
+            "WHERE status = 'approved' AND article_id BETWEEN #{fromId} AND #{toId} GROUP BY article_id" +
+            ") c ON c.article_id = a.id " +
+            "SET a.comment_count = COALESCE(c.cnt, 0) " +
+            "WHERE a.id BETWEEN #{fromId} AND #{toId} AND a.comment_count <> COALESCE(c.cnt, 0)")
+    int reconcileCommentCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Recompute like_count for articles with ids in [fromId, toId], as reconcileCommentCounts does
+     */
+    @Update("UPDATE articles a LEFT JOIN (" +
+            "SELECT article_id, COUNT(*) AS cnt FROM article_likes " +
+            "WHERE article_id BETWEEN #{fromId} AND #{toId} GROUP BY article_id" +
+            ") l ON l.article_id = a.id " +
+            "SET a.like_count = COALESCE(l.cnt, 0) " +
+            "WHERE a.id BETWEEN #{fromId} AND #{toId} AND a.like_count <> COALESCE(l.cnt, 0)")
+    int reconcileLikeCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Stream every row in id order without materializing the table; MySQL only streams
+     * with fetchSize Integer.MIN_VALUE. Must be consumed and closed inside a transaction.
+     */
+    @Select("SELECT * FROM articles ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Article> streamAll();
+
+    /**
+     * Stream rows after the keyset position (since, afterId) in (updated_at, id) order, for
+     * incremental backups. Same streaming contract as streamAll.
+     */
+    @Select("SELECT * FROM articles WHERE updated_at > #{since} OR (updated_at = #{since} AND id > #{afterId}) " +
+            "ORDER BY updated_at, id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Article> streamChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId);
+
+    /**
+     * Stream every id in ascending order, used to find rows deleted since the last backup
+     */
+    @Select("SELECT id FROM articles ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Long> streamIds();
 }
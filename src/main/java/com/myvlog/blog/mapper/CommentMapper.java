@@ -3,7 +3,54 @@ package com.myvlog.blog.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.myvlog.blog.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CommentMapper extends BaseMapper<Comment> {
+
+    /**
+     * Count approved direct replies per parent comment.
+     * Served from idx_article_status_parent_created without touching the rows.
+     */
+    @Select("<script>" +
+            "SELECT parent_id AS parentId, COUNT(*) AS replyCount FROM comments " +
+            "WHERE article_id = #{articleId} AND status = 'approved' AND parent_id IN " +
+            "<foreach collection='parentIds' item='parentId' open='(' separator=',' close=')'>#{parentId}</foreach> " +
+            "GROUP BY parent_id" +
+            "</script>")
+    List<Map<String, Object>> countApprovedReplies(@Param("articleId") Long articleId,
+                                                   @Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * Stream every row in id order without materializing the table; MySQL only streams
+     * with fetchSize Integer.MIN_VALUE. Must be consumed and closed inside a transaction.
+     */
+    @Select("SELECT * FROM comments ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Comment> streamAll();
+
+    /**
+     * Stream rows after the keyset position (since, afterId) in (updated_at, id) order, for
+     * incremental backups. Same streaming contract as streamAll.
+     */
+    @Select("SELECT * FROM comments WHERE updated_at > #{since} OR (updated_at = #{since} AND id > #{afterId}) " +
+            "ORDER BY updated_at, id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Comment> streamChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId);
+
+    /**
+     * Stream every id in ascending order, used to find rows deleted since the last backup
+     */
+    @Select("SELECT id FROM comments ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Long> streamIds();
 }
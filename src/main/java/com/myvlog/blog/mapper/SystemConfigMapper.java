@@ -3,7 +3,39 @@ package com.myvlog.blog.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.myvlog.blog.entity.SystemConfig;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
 
 @Mapper
 public interface SystemConfigMapper extends BaseMapper<SystemConfig> {
+
+    /**
+     * Stream every row in key order without materializing the table; MySQL only streams
+     * with fetchSize Integer.MIN_VALUE. Must be consumed and closed inside a transaction.
+     */
+    @Select("SELECT * FROM system_configs ORDER BY `key`")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<SystemConfig> streamAll();
+
+    /**
+     * Stream rows after the keyset position (since, afterKey) in (updated_at, key) order, for
+     * incremental backups. Keys compare as binary so the order matches a plain byte comparison.
+     */
+    @Select("SELECT * FROM system_configs WHERE updated_at > #{since} " +
+            "OR (updated_at = #{since} AND CAST(`key` AS BINARY) > CAST(#{afterKey} AS BINARY)) " +
+            "ORDER BY updated_at, CAST(`key` AS BINARY)")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<SystemConfig> streamChangedSince(@Param("since") LocalDateTime since, @Param("afterKey") String afterKey);
+
+    /**
+     * Stream every key in binary order, used to find rows deleted since the last backup
+     */
+    @Select("SELECT `key` FROM system_configs ORDER BY CAST(`key` AS BINARY)")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<String> streamKeys();
 }
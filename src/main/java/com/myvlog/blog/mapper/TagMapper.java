@@ -3,7 +3,38 @@ package com.myvlog.blog.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.myvlog.blog.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
 
 @Mapper
 public interface TagMapper extends BaseMapper<Tag> {
+
+    /**
+     * Stream every row in id order without materializing the table; MySQL only streams
+     * with fetchSize Integer.MIN_VALUE. Must be consumed and closed inside a transaction.
+     */
+    @Select("SELECT * FROM tags ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Tag> streamAll();
+
+    /**
+     * Stream rows after the keyset position (since, afterId) in (updated_at, id) order, for
+     * incremental backups. Same streaming contract as streamAll.
+     */
+    @Select("SELECT * FROM tags WHERE updated_at > #{since} OR (updated_at = #{since} AND id > #{afterId}) " +
+            "ORDER BY updated_at, id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Tag> streamChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId);
+
+    /**
+     * Stream every id in ascending order, used to find rows deleted since the last backup
+     */
+    @Select("SELECT id FROM tags ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Long> streamIds();
 }
@@ -0,0 +1,198 @@
+package com.myvlog.blog.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Case-insensitive multi-term highlighter.
+ * The query is compiled once into an Aho-Corasick automaton, after which every text is
+ * scanned in a single pass regardless of how many terms the query has. Output is
+ * HTML-escaped with matches wrapped in &lt;mark&gt;.
+ */
+public final class Highlighter {
+
+    private static final Highlighter EMPTY = new Highlighter(new LinkedHashSet<>());
+
+    // Trie nodes: goto edges, failure link and the longest term ending at (or via failure from) the node
+    private final List<Map<Character, Integer>> edges = new ArrayList<>();
+    private final List<Integer> fail = new ArrayList<>();
+    private final List<Integer> matchLength = new ArrayList<>();
+    private final boolean empty;
+
+    private Highlighter(Set<String> terms) {
+        this.empty = terms.isEmpty();
+        newNode();
+        for (String term : terms) {
+            insert(term);
+        }
+        buildFailureLinks();
+    }
+
+    /**
+     * Compile a user query; whitespace separates terms
+     */
+    public static Highlighter compile(String query) {
+        if (query == null || query.isBlank()) {
+            return EMPTY;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : query.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new Highlighter(terms);
+    }
+
+    public boolean matches(String text) {
+        return !find(text).isEmpty();
+    }
+
+    /**
+     * Matched [start, end) ranges, sorted and merged so they never overlap
+     */
+    public List<int[]> find(String text) {
+        List<int[]> ranges = new ArrayList<>();
+        if (empty || text == null || text.isEmpty()) {
+            return ranges;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            Integer next;
+            while ((next = edges.get(state).get(c)) == null && state != 0) {
+                state = fail.get(state);
+            }
+            state = next == null ? 0 : next;
+
+            int length = matchLength.get(state);
+            if (length > 0) {
+                int start = i + 1 - length;
+                // A long match can swallow several earlier short ones
+                while (!ranges.isEmpty() && start <= ranges.get(ranges.size() - 1)[1]) {
+                    start = Math.min(start, ranges.remove(ranges.size() - 1)[0]);
+                }
+                ranges.add(new int[]{start, i + 1});
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Escape the whole text and highlight every match
+     */
+    public String highlight(String text) {
+        return render(text, find(text));
+    }
+
+    /**
+     * Escaped excerpt of roughly {@code window} characters centred on the first match, or null when nothing matches
+     */
+    public String snippet(String text, int window) {
+        if (text == null) {
+            return null;
+        }
+        String flat = text.replaceAll("\\s+", " ").trim();
+        List<int[]> ranges = find(flat);
+        if (ranges.isEmpty()) {
+            return null;
+        }
+
+        int[] first = ranges.get(0);
+        int start = Math.max(0, first[0] - window / 2);
+        int end = Math.min(flat.length(), start + window);
+        start = Math.max(0, Math.min(start, end - window));
+
+        List<int[]> inWindow = new ArrayList<>();
+        for (int[] range : ranges) {
+            if (range[0] >= start && range[1] <= end) {
+                inWindow.add(new int[]{range[0] - start, range[1] - start});
+            }
+        }
+        return (start > 0 ? "…" : "") + render(flat.substring(start, end), inWindow) + (end < flat.length() ? "…" : "");
+    }
+
+    /**
+     * Escape text and wrap the given sorted, non-overlapping ranges in &lt;mark&gt;
+     */
+    public static String render(String text, List<int[]> ranges) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        int last = 0;
+        for (int[] range : ranges) {
+            if (range[0] < last || range[1] > text.length()) {
+                continue;
+            }
+            escape(text, last, range[0], sb);
+            sb.append("<mark>");
+            escape(text, range[0], range[1], sb);
+            sb.append("</mark>");
+            last = range[1];
+        }
+        escape(text, last, text.length(), sb);
+        return sb.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder sb) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private int newNode() {
+        edges.add(new HashMap<>());
+        fail.add(0);
+        matchLength.add(0);
+        return edges.size() - 1;
+    }
+
+    private void insert(String term) {
+        int state = 0;
+        for (int i = 0; i < term.length(); i++) {
+            char c = Character.toLowerCase(term.charAt(i));
+            Integer next = edges.get(state).get(c);
+            if (next == null) {
+                next = newNode();
+                edges.get(state).put(c, next);
+            }
+            state = next;
+        }
+        matchLength.set(state, Math.max(matchLength.get(state), term.length()));
+    }
+
+    private void buildFailureLinks() {
+        List<Integer> queue = new ArrayList<>(edges.get(0).values());
+        for (int head = 0; head < queue.size(); head++) {
+            int state = queue.get(head);
+            for (Map.Entry<Character, Integer> edge : edges.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int f = fail.get(state);
+                Integer target;
+                while ((target = edges.get(f).get(c)) == null && f != 0) {
+                    f = fail.get(f);
+                }
+                int link = target == null || target == child ? 0 : target;
+                fail.set(child, link);
+                matchLength.set(child, Math.max(matchLength.get(child), matchLength.get(link)));
+                queue.add(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.myvlog.blog.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Compact in-memory inverted index with BM25 ranking.
+ * <p>
+ * Every indexed article gets a dense int ordinal; postings are parallel, ascending int arrays of
+ * (ordinal, term frequency). Ordinals only grow, so adding a document is an append. Replacing or
+ * removing one tombstones its old ordinal; tombstones are skipped at query time and squeezed out by
+ * {@link #compact()} once they outnumber live documents.
+ * <p>
+ * Not thread-safe: callers guard reads and writes (see MemorySearchServiceImpl).
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Posting> postings = new HashMap<>();
+    // CJK character -> indexed bigrams containing it, for single-character queries
+    private final Map<Character, Set<String>> bigramsByChar = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] articleIds = new long[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] summaries = new String[INITIAL_CAPACITY];
+
+    private int nextOrdinal;
+    private long totalLength;
+
+    /**
+     * Add an article, replacing any previous version with the same id
+     */
+    public void add(long articleId, String title, String summary, String content) {
+        remove(articleId);
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = 0;
+        for (String field : new String[]{title, summary, content}) {
+            for (String token : Tokenizer.tokenize(field)) {
+                frequencies.computeIfAbsent(token, t -> new int[1])[0]++;
+                length++;
+            }
+        }
+
+        int ordinal = nextOrdinal++;
+        ensureCapacity(nextOrdinal);
+        articleIds[ordinal] = articleId;
+        docLengths[ordinal] = length;
+        titles[ordinal] = title;
+        summaries[ordinal] = summary;
+        totalLength += length;
+        ordinals.put(articleId, ordinal);
+
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, this::newPosting).append(ordinal, tf[0]));
+    }
+
+    public void remove(long articleId) {
+        Integer ordinal = ordinals.remove(articleId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        totalLength -= docLengths[ordinal];
+        titles[ordinal] = null;
+        summaries[ordinal] = null;
+
+        if (deleted.cardinality() > INITIAL_CAPACITY && deleted.cardinality() > ordinals.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rank live documents against the query terms with BM25, best first
+     */
+    public List<Result> search(List<String> queryTerms, int limit) {
+        List<Result> results = new ArrayList<>();
+        int liveDocs = ordinals.size();
+        if (liveDocs == 0 || limit <= 0) {
+            return results;
+        }
+
+        double avgLength = Math.max(1.0, (double) totalLength / liveDocs);
+        double[] scores = new double[nextOrdinal];
+        BitSet touched = new BitSet(nextOrdinal);
+
+        for (String term : expand(queryTerms)) {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            int df = posting.size;
+            double idf = Math.log(1.0 + (liveDocs - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < posting.size; i++) {
+                int doc = posting.docs[i];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                int tf = posting.freqs[i];
+                double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                touched.set(doc);
+            }
+        }
+
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(scores[a], scores[b]));
+        for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+            top.offer(doc);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        while (!top.isEmpty()) {
+            int doc = top.poll();
+            results.add(new Result(articleIds[doc], scores[doc], titles[doc], summaries[doc]));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Renumber live documents densely and drop tombstoned entries from every posting list
+     */
+    public void compact() {
+        int[] remap = new int[nextOrdinal];
+        int live = 0;
+        for (int doc = 0; doc < nextOrdinal; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = live;
+            articleIds[live] = articleIds[doc];
+            docLengths[live] = docLengths[doc];
+            titles[live] = titles[doc];
+            summaries[live] = summaries[doc];
+            ordinals.put(articleIds[live], live);
+            live++;
+        }
+        Arrays.fill(titles, live, nextOrdinal, null);
+        Arrays.fill(summaries, live, nextOrdinal, null);
+
+        postings.entrySet().removeIf(entry -> {
+            if (entry.getValue().remap(remap) > 0) {
+                return false;
+            }
+            forgetBigram(entry.getKey());
+            return true;
+        });
+        deleted.clear();
+        nextOrdinal = live;
+    }
+
+    /**
+     * Single CJK characters are not indexed on their own inside longer runs, so widen
+     * such a query term to every bigram that contains it.
+     */
+    private List<String> expand(List<String> queryTerms) {
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+        for (String term : queryTerms) {
+            terms.add(term);
+            if (term.length() == 1 && Tokenizer.isCjk(term.charAt(0))) {
+                terms.addAll(bigramsByChar.getOrDefault(term.charAt(0), Collections.emptySet()));
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private Posting newPosting(String term) {
+        if (term.length() == 2) {
+            for (int i = 0; i < 2; i++) {
+                if (Tokenizer.isCjk(term.charAt(i))) {
+                    bigramsByChar.computeIfAbsent(term.charAt(i), c -> new HashSet<>()).add(term);
+                }
+            }
+        }
+        return new Posting();
+    }
+
+    private void forgetBigram(String term) {
+        if (term.length() != 2) {
+            return;
+        }
+        for (int i = 0; i < 2; i++) {
+            Set<String> bigrams = bigramsByChar.get(term.charAt(i));
+            if (bigrams != null && bigrams.remove(term) && bigrams.isEmpty()) {
+                bigramsByChar.remove(term.charAt(i));
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= articleIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, articleIds.length * 2);
+        articleIds = Arrays.copyOf(articleIds, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        summaries = Arrays.copyOf(summaries, capacity);
+    }
+
+    /**
+     * Ranked document with the stored title/summary needed for highlighting
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final long articleId;
+        private final double score;
+        private final String title;
+        private final String summary;
+    }
+
+    private static class Posting {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void append(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = tf;
+            size++;
+        }
+
+        int remap(int[] remap) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[live] = doc;
+                    freqs[live] = freqs[i];
+                    live++;
+                }
+            }
+            size = live;
+            if (docs.length > 16 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+                freqs = Arrays.copyOf(freqs, Math.max(4, size * 2));
+            }
+            return size;
+        }
+    }
+}
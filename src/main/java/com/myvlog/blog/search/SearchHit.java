@@ -0,0 +1,24 @@
+package com.myvlog.blog.search;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One ranked search result.
+ * Highlight offsets are [start, end) character ranges into the article's raw title and summary.
+ */
+@Data
+public class SearchHit {
+
+    private Long articleId;
+    private double score;
+    private List<int[]> titleOffsets = new ArrayList<>();
+    private List<int[]> summaryOffsets = new ArrayList<>();
+
+    public SearchHit(Long articleId, double score) {
+        this.articleId = articleId;
+        this.score = score;
+    }
+}
@@ -0,0 +1,46 @@
+package com.myvlog.blog.security;
+
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 认证后的用户主体
+ * 在 Spring Security 的 User 基础上携带用户 ID、角色和 VIP 到期时间，
+ * 权限判断可以直接读取上下文，不必再按用户名查库
+ */
+@Getter
+public class AuthUser extends User {
+
+    private final Long id;
+    private final String role;
+    private final LocalDateTime vipExpireAt;
+
+    public AuthUser(Long id, String username, String password, boolean enabled, String role,
+                    LocalDateTime vipExpireAt, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.role = role;
+        this.vipExpireAt = vipExpireAt;
+    }
+
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+
+    /**
+     * 当前请求的认证用户，未登录时返回 null
+     */
+    public static AuthUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthUser) {
+            return (AuthUser) authentication.getPrincipal();
+        }
+        return null;
+    }
+}
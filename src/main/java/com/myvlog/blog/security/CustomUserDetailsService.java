@@ -1,7 +1,7 @@
 package com.myvlog.blog.security;
 
+import com.myvlog.blog.cache.UserCache;
 import com.myvlog.blog.entity.User;
-import com.myvlog.blog.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,15 +15,12 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserMapper userMapper;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 使用 MyBatis-Plus 的查询方式
-        User user = userMapper.selectOne(
-            new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<User>()
-                .eq("username", username)
-        );
+        // 经由短期缓存读取，TTL 内的重复请求不再查询 users 表
+        User user = userCache.get(username);
 
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username: " + username);
@@ -32,13 +29,13 @@ public class CustomUserDetailsService implements UserDetailsService {
         // 简单的角色映射，后续可以根据 role 字段扩展
         SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPasswordHash(),
                 user.getStatus() == 1, // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
+                user.getRole(),
+                user.getVipExpireAt(),
                 Collections.singletonList(authority)
         );
     }
@@ -56,8 +56,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // 3. 截取 Token 字符串 (去掉 "Bearer " 前缀)
             jwt = authHeader.substring(7);
-            // 4. 从 Token 中提取用户名
-            username = jwtUtils.extractUsername(jwt);
+            // 4. 校验签名并解析 Token（每个请求只解析一次，近期校验过的 Token 直接命中缓存）
+            JwtUtils.VerifiedToken verified = jwtUtils.verify(jwt);
+            username = verified.subject();
 
             // 5. 如果用户名有效且当前上下文没有认证信息
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -65,7 +66,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
                 // 7. 验证 Token 是否合法且属于该用户
-                if (jwtUtils.isTokenValid(jwt, userDetails)) {
+                if (jwtUtils.isTokenValid(verified, userDetails)) {
                     // 8. 创建认证对象并存入 SecurityContext 上下文
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -5,7 +5,9 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.myvlog.blog.dto.ArticleRequest;
 import com.myvlog.blog.dto.ArticleResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.enums.CountMode;
 
 public interface ArticleService extends IService<Article> {
     
@@ -17,13 +19,21 @@ public interface ArticleService extends IService<Article> {
     
     ArticleResponse getArticleBySlug(String slug);
     
-    IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status, String sort);
+    // countMode decides whether the total is counted, taken from the count cache, or skipped
+    IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status, String sort, CountMode countMode);
+
+    default IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status, String sort) {
+        return getArticleList(page, categoryId, tagId, status, sort, CountMode.EXACT);
+    }
     
     // Legacy overload for backward compatibility if needed, or update call sites
     default IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status) {
         return getArticleList(page, categoryId, tagId, status, "newest");
     }
 
+    // Cursor (keyset) mode of the list: no COUNT, constant cost per page
+    CursorPage<ArticleResponse> scrollArticles(Long categoryId, Long tagId, String status, String cursor, Integer size);
+
     void deleteArticle(Long id);
 
     void publishArticle(Long id);
@@ -40,7 +50,13 @@ public interface ArticleService extends IService<Article> {
     void auditArticle(Long id, String status, String reason);
 
     // Search
-    IPage<ArticleResponse> searchArticles(Page<Article> page, String keyword, Long categoryId, Long tagId);
+    IPage<ArticleResponse> searchArticles(Page<Article> page, String keyword, Long categoryId, Long tagId, CountMode countMode);
+
+    default IPage<ArticleResponse> searchArticles(Page<Article> page, String keyword, Long categoryId, Long tagId) {
+        return searchArticles(page, keyword, categoryId, tagId, CountMode.EXACT);
+    }
+
+    CursorPage<ArticleResponse> scrollSearch(String keyword, Long categoryId, Long tagId, String cursor, Integer size);
 
     // Get current user's articles
     java.util.List<ArticleResponse> getMyArticles();
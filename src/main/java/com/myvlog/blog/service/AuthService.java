@@ -1,12 +1,14 @@
 package com.myvlog.blog.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.myvlog.blog.cache.UserCache;
 import com.myvlog.blog.dto.AuthResponse;
 import com.myvlog.blog.dto.LoginRequest;
 import com.myvlog.blog.dto.RegisterRequest;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.mapper.UserMapper;
 import com.myvlog.blog.exception.BusinessException;
+import com.myvlog.blog.stats.SiteStats;
 import com.myvlog.blog.utils.JwtUtils;
 import com.myvlog.blog.utils.NameUtils;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +25,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final SiteStats siteStats;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
@@ -54,6 +58,9 @@ public class AuthService {
         user.setStatus(1); // Active
 
         userMapper.insert(user);
+        siteStats.adjust(SiteStats.Kind.USERS, 1);
+        // A failed login before registering may have cached "no such user"
+        userCache.invalidate(user);
 
         String token = jwtUtils.generateToken(user.getUsername());
         return AuthResponse.builder()
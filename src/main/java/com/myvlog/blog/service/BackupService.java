@@ -9,6 +9,14 @@ public interface BackupService {
      * @return The backup file (zip)
      */
     File performBackup();
+
+    /**
+     * Perform the nightly backup: a full base when the current chain is missing, broken or
+     * older than blog.backup.full-interval-days, otherwise an incremental or differential
+     * archive (blog.backup.mode) on top of it
+     * @return The backup file (zip)
+     */
+    File performScheduledBackup();
     
     /**
      * List available backups
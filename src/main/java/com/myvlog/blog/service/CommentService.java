@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.myvlog.blog.dto.CommentAdminDto;
 import com.myvlog.blog.dto.CommentRequest;
 import com.myvlog.blog.dto.CommentResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.entity.Comment;
 import com.myvlog.blog.entity.User;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,11 +22,26 @@ public interface CommentService extends IService<Comment> {
      * Get comments by article ID (Tree structure)
      */
     List<CommentResponse> getCommentsByArticleId(Long articleId);
+
+    /**
+     * Get top-level comments of an article by cursor, with per-thread reply counts
+     */
+    CursorPage<CommentResponse> getCommentThreads(Long articleId, String cursor, Integer size);
+
+    /**
+     * Get direct replies of a comment by cursor
+     */
+    CursorPage<CommentResponse> getReplies(Long commentId, String cursor, Integer size);
     
     /**
-     * Get comment page (Flat structure for admin)
+     * Get comment page (Flat structure for admin), optionally limited to one article
+     */
+    Page<CommentAdminDto> getCommentPage(Integer page, Integer size, String status, Long articleId);
+
+    /**
+     * Get comments for moderation by cursor, newest first, optionally limited to one article
      */
-    Page<CommentAdminDto> getCommentPage(Integer page, Integer size, String status);
+    CursorPage<CommentAdminDto> getCommentFeed(String status, Long articleId, String cursor, Integer size);
 
     /**
      * Delete comment
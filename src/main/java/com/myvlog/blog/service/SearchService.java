@@ -0,0 +1,35 @@
+package com.myvlog.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.search.SearchHit;
+
+import java.util.List;
+
+/**
+ * Pluggable full-text search backend, selected with blog.search.engine (mysql | memory).
+ * Backends only rank keyword matches; visibility, category and tag filters stay in ArticleService.
+ */
+public interface SearchService {
+
+    /**
+     * Find articles matching the keyword, best match first.
+     *
+     * @param keyword raw user query
+     * @param limit   maximum number of hits to return
+     * @param filter  the caller's visibility/category/tag filter; backends that can apply it
+     *                before the limit do, and the caller applies it to the hits again
+     * @return ranked hits with highlight offsets into title and summary
+     */
+    List<SearchHit> search(String keyword, int limit, LambdaQueryWrapper<Article> filter);
+
+    /**
+     * Add or replace an article in the index after it was created or edited.
+     */
+    void index(Article article);
+
+    /**
+     * Drop an article from the index after it was deleted.
+     */
+    void remove(Long articleId);
+}
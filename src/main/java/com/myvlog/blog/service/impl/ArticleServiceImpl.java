@@ -5,6 +5,10 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.myvlog.blog.cache.ArticleCountCache;
+import com.myvlog.blog.cache.ArticleRenderCache;
+import com.myvlog.blog.cache.LikeIndex;
+import com.myvlog.blog.cache.UserCache;
 import com.myvlog.blog.dto.*;
 import com.myvlog.blog.entity.Article;
 import com.myvlog.blog.entity.ArticleLike;
@@ -12,17 +16,27 @@ import com.myvlog.blog.entity.Category;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.enums.ArticleStatus;
 import com.myvlog.blog.enums.ArticleVisibility;
+import com.myvlog.blog.enums.CountMode;
 import com.myvlog.blog.mapper.ArticleLikeMapper;
 import com.myvlog.blog.mapper.ArticleMapper;
 import com.myvlog.blog.mapper.ArticleTagMapper;
 import com.myvlog.blog.mapper.CategoryMapper;
 import com.myvlog.blog.mapper.TagMapper;
 import com.myvlog.blog.mapper.UserMapper;
+import com.myvlog.blog.search.Highlighter;
+import com.myvlog.blog.search.SearchHit;
 import com.myvlog.blog.service.ArticleService;
-import com.myvlog.blog.utils.JwtUtils;
+import com.myvlog.blog.service.SearchService;
+import com.myvlog.blog.stats.HotRanking;
+import com.myvlog.blog.stats.SiteStats;
+import com.myvlog.blog.stats.TrafficStats;
+import com.myvlog.blog.stats.ViewCountBuffer;
+import com.myvlog.blog.utils.CursorUtils;
 import com.myvlog.blog.utils.MarkdownUtils;
+import com.myvlog.blog.utils.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -32,7 +46,13 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.myvlog.blog.entity.ArticleTag;
@@ -44,6 +64,7 @@ import com.myvlog.blog.entity.Tag;
 public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> implements ArticleService {
 
     private final UserMapper userMapper;
+    private final UserCache userCache;
     private final CategoryMapper categoryMapper;
     private final ArticleMapper articleMapper;
     private final ArticleLikeMapper articleLikeMapper;
@@ -51,13 +72,28 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
     private final TagMapper tagMapper;
     private final com.myvlog.blog.service.SubscriberService subscriberService;
     private final com.myvlog.blog.service.WebhookService webhookService;
+    private final ArticleRenderCache articleRenderCache;
+    private final ArticleCountCache articleCountCache;
+    private final ViewCountBuffer viewCountBuffer;
+    private final SearchService searchService;
+    private final LikeIndex likeIndex;
+    private final HotRanking hotRanking;
+    private final SiteStats siteStats;
+    private final TrafficStats trafficStats;
+
+    private static final int SNIPPET_WINDOW = 160;
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 10;
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
+    @Value("${blog.search.max-hits:1000}")
+    private int searchMaxHits = 1000;
     
     // Helper to get current user ID
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
             String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            return userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUsername, username));
+            return userCache.get(username);
         }
         throw new RuntimeException("User not found or not logged in");
     }
@@ -68,7 +104,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
                 String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-                return userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUsername, username));
+                return userCache.get(username);
             }
         } catch (Exception e) {
             // Ignore
@@ -76,13 +112,86 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         return null;
     }
 
+    /**
+     * Entity updates never write the denormalized counters. They are maintained by atomic
+     * column updates, and the copy loaded earlier in the request may already be stale.
+     */
+    @Override
+    public boolean updateById(Article entity) {
+        Integer viewCount = entity.getViewCount();
+        Integer likeCount = entity.getLikeCount();
+        Integer commentCount = entity.getCommentCount();
+        entity.setViewCount(null);
+        entity.setLikeCount(null);
+        entity.setCommentCount(null);
+        try {
+            return super.updateById(entity);
+        } finally {
+            entity.setViewCount(viewCount);
+            entity.setLikeCount(likeCount);
+            entity.setCommentCount(commentCount);
+        }
+    }
+
     @Override
-    public IPage<ArticleResponse> searchArticles(Page<Article> page, String keyword, Long categoryId, Long tagId) {
+    public IPage<ArticleResponse> searchArticles(Page<Article> page, String keyword, Long categoryId, Long tagId, CountMode countMode) {
         User currentUser = tryGetCurrentUser();
         log.info("Search Request: keyword='{}', user='{}'", keyword, currentUser != null ? currentUser.getUsername() : "Guest");
-        
-        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
-        
+
+        SearchQuery query = buildSearchQuery(keyword, categoryId, tagId, currentUser);
+        if (query == null) {
+            return new Page<>(page.getCurrent(), page.getSize(), 0);
+        }
+        if (query.rankedHits != null) {
+            return rankedPage(page, query.filter, query.rankedHits, Highlighter.compile(keyword), currentUser);
+        }
+
+        LambdaQueryWrapper<Article> wrapper = query.filter;
+        wrapper.orderByDesc(Article::getIsTop);
+        wrapper.orderByDesc(Article::getPublishedAt);
+        wrapper.orderByDesc(Article::getCreatedAt);
+
+        // Only blank and "#tag" keywords reach this path, so the trimmed keyword identifies the filter
+        String signature = "search|" + (keyword == null ? "" : keyword.trim()) + "|" + categoryId + "|" + tagId + "|" + roleClass(currentUser);
+        Page<Article> articlePage = countedPage(page, wrapper, signature, countMode);
+        IPage<ArticleResponse> responsePage = toResponsePage(articlePage, currentUser);
+        highlightTag(responsePage.getRecords(), query.strictTagId);
+        return responsePage;
+    }
+
+    @Override
+    public CursorPage<ArticleResponse> scrollSearch(String keyword, Long categoryId, Long tagId, String cursor, Integer size) {
+        User currentUser = tryGetCurrentUser();
+        SearchQuery query = buildSearchQuery(keyword, categoryId, tagId, currentUser);
+        if (query == null) {
+            return new CursorPage<>(new ArrayList<>(), null, false);
+        }
+        if (query.rankedHits != null) {
+            return rankedScroll(query, Highlighter.compile(keyword), cursor, size, currentUser);
+        }
+        CursorPage<ArticleResponse> result = keysetPage(query.filter, cursor, size, currentUser);
+        highlightTag(result.getItems(), query.strictTagId);
+        return result;
+    }
+
+    /**
+     * Filters for a search, shared by the page and scroll modes
+     */
+    private static class SearchQuery {
+        private final LambdaQueryWrapper<Article> filter = new LambdaQueryWrapper<>();
+        // Relevance-ordered candidates for a keyword search, null when results are ordered by date
+        private Map<Long, SearchHit> rankedHits;
+        // Tag to flag on results of a "#tag" search
+        private Long strictTagId;
+    }
+
+    /**
+     * Build the search filters; returns null when the search cannot match anything
+     */
+    private SearchQuery buildSearchQuery(String keyword, Long categoryId, Long tagId, User currentUser) {
+        SearchQuery query = new SearchQuery();
+        LambdaQueryWrapper<Article> wrapper = query.filter;
+
         // 1. Status & Visibility Filter
         // - Public: see Published && (Visibility != PRIVATE)
         // - Author: see all their own (Drafts, Private included)
@@ -90,28 +199,20 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         boolean isStrictTagSearch = StringUtils.hasText(keyword) && keyword.trim().startsWith("#");
         
         if (!isStrictTagSearch) {
-            wrapper.and(w -> {
-                // Base condition: Published and NOT Private
-                w.and(b -> b.eq(Article::getStatus, ArticleStatus.PUBLISHED)
-                           .ne(Article::getVisibility, ArticleVisibility.PRIVATE));
-                
-                if (currentUser != null) {
-                    if ("admin".equals(currentUser.getRole())) {
-                        // Admin sees everything
-                        w.or().eq(Article::getStatus, ArticleStatus.DRAFT)
-                         .or().eq(Article::getVisibility, ArticleVisibility.PRIVATE);
-                    } else {
-                        Long uid = currentUser.getId();
-                        // Author sees their own Drafts or Private articles
-                        w.or(o -> o.and(a -> a.eq(Article::getAuthorId, uid)
-                                             .and(i -> i.eq(Article::getStatus, ArticleStatus.DRAFT)
-                                                        .or().eq(Article::getVisibility, ArticleVisibility.PRIVATE))));
-                    }
-                }
-            });
+            applyVisibility(wrapper, currentUser);
+        }
+
+        // 2. Category Filter
+        if (categoryId != null) {
+            wrapper.eq(Article::getCategoryId, categoryId);
         }
 
-        // 2. Keyword Search
+        // 3. Tag Filter (from dropdown)
+        if (tagId != null) {
+            wrapper.inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id = " + tagId);
+        }
+
+        // 4. Keyword Search, applied last so the search backend can take the filters above into account
         if (StringUtils.hasText(keyword)) {
             String finalKeyword = keyword.trim();
             log.info("Search Processing: finalKeyword='{}'", finalKeyword);
@@ -124,9 +225,10 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                     if (tag != null) {
                         log.info("Strict Tag Search: Found tag '{}' (id={})", tag.getName(), tag.getId());
                         wrapper.inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id = " + tag.getId());
+                        query.strictTagId = tag.getId();
                     } else {
                         log.info("Strict Tag Search: Tag '{}' not found", tagName);
-                        return new Page<>();
+                        return null;
                     }
                 }
             } else {
@@ -135,43 +237,141 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                 List<Long> tagIds = matchingTags.stream().map(Tag::getId).collect(Collectors.toList());
                 log.info("Fuzzy Tag Search: Found {} matching tags: {}", matchingTags.size(), tagIds);
 
-                wrapper.and(w -> {
-                    w.like(Article::getTitle, finalKeyword)
-                     .or().like(Article::getSummary, finalKeyword)
-                     .or().like(Article::getContent, finalKeyword);
-                    
-                    if (!tagIds.isEmpty()) {
-                        String tagIdsStr = tagIds.stream().map(String::valueOf).collect(Collectors.joining(","));
-                        w.or().inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id IN (" + tagIdsStr + ")");
+                // Relevance-ranked text hits from the search backend, then articles carrying a matching tag
+                Map<Long, SearchHit> rankedHits = new LinkedHashMap<>();
+                for (SearchHit hit : searchService.search(finalKeyword, searchMaxHits, wrapper)) {
+                    rankedHits.put(hit.getArticleId(), hit);
+                }
+                if (!tagIds.isEmpty()) {
+                    List<ArticleTag> tagged = articleTagMapper.selectList(new LambdaQueryWrapper<ArticleTag>()
+                            .select(ArticleTag::getArticleId)
+                            .in(ArticleTag::getTagId, tagIds));
+                    for (ArticleTag articleTag : tagged) {
+                        rankedHits.putIfAbsent(articleTag.getArticleId(), new SearchHit(articleTag.getArticleId(), 0));
                     }
-                });
+                }
+                log.info("Full-text Search: {} candidate articles", rankedHits.size());
+
+                if (rankedHits.isEmpty()) {
+                    return null;
+                }
+                wrapper.in(Article::getId, rankedHits.keySet());
+                query.rankedHits = rankedHits;
             }
         }
 
-        // 3. Category Filter
-        if (categoryId != null) {
-            wrapper.eq(Article::getCategoryId, categoryId);
+        return query;
+    }
+
+    private static void highlightTag(List<ArticleResponse> responses, Long tagId) {
+        if (tagId == null) {
+            return;
         }
+        for (ArticleResponse response : responses) {
+            if (response.getTags() == null) {
+                continue;
+            }
+            for (TagDto tag : response.getTags()) {
+                if (tagId.equals(tag.getId())) {
+                    tag.setHighlighted(true);
+                }
+            }
+        }
+    }
 
-        // 4. Tag Filter (from dropdown)
-        if (tagId != null) {
-            wrapper.inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id = " + tagId);
+    /**
+     * Page through search hits in relevance order.
+     * Only ids are read to apply the visibility/category/tag filters; full rows are loaded for the requested page alone.
+     */
+    private IPage<ArticleResponse> rankedPage(Page<Article> page, LambdaQueryWrapper<Article> filter,
+                                              Map<Long, SearchHit> rankedHits, Highlighter highlighter, User currentUser) {
+        List<Long> orderedIds = allowedRankedIds(filter, rankedHits);
+
+        Page<Article> articlePage = new Page<>(page.getCurrent(), page.getSize(), orderedIds.size());
+        int from = (int) Math.min((page.getCurrent() - 1) * page.getSize(), orderedIds.size());
+        int to = (int) Math.min(from + page.getSize(), orderedIds.size());
+        articlePage.setRecords(listInOrder(orderedIds.subList(from, to)));
+
+        IPage<ArticleResponse> responsePage = toResponsePage(articlePage, currentUser);
+        for (ArticleResponse response : responsePage.getRecords()) {
+            applyHighlights(response, rankedHits.get(response.getId()), highlighter);
+        }
+        return responsePage;
+    }
+
+    /**
+     * Scroll through search hits in relevance order, continuing after the id in the cursor.
+     * If that article has since dropped out of the results the scroll ends.
+     */
+    private CursorPage<ArticleResponse> rankedScroll(SearchQuery query, Highlighter highlighter,
+                                                     String cursor, Integer size, User currentUser) {
+        int limit = cursorLimit(size);
+        CursorUtils.ArticlePosition after = CursorUtils.decodeArticle(cursor);
+        List<Long> orderedIds = allowedRankedIds(query.filter, query.rankedHits);
+
+        int from = after == null ? 0 : orderedIds.indexOf(after.getId()) + 1;
+        if (after != null && from == 0) {
+            return new CursorPage<>(new ArrayList<>(), null, false);
         }
+        int to = Math.min(from + limit, orderedIds.size());
+        List<Long> pageIds = orderedIds.subList(from, to);
 
-        wrapper.orderByDesc(Article::getIsTop);
-        wrapper.orderByDesc(Article::getPublishedAt);
-        wrapper.orderByDesc(Article::getCreatedAt);
+        List<ArticleResponse> items = mapToResponses(listInOrder(pageIds), currentUser);
+        for (ArticleResponse response : items) {
+            applyHighlights(response, query.rankedHits.get(response.getId()), highlighter);
+        }
+        // Only the id matters for a relevance-ordered position
+        boolean hasMore = to < orderedIds.size();
+        String next = hasMore ? CursorUtils.encodeArticle(false, null, pageIds.get(pageIds.size() - 1)) : null;
+        return new CursorPage<>(items, next, hasMore);
+    }
 
-        Page<Article> articlePage = page(page, wrapper);
-        
-        return articlePage.convert(article -> {
-            ArticleResponse response = mapToResponse(article, currentUser);
-            if (StringUtils.hasText(keyword) && !keyword.trim().startsWith("#")) {
-                response.setTitle(highlight(response.getTitle(), keyword));
-                response.setSummary(highlight(response.getSummary(), keyword));
+    /**
+     * Ranked candidate ids that pass the visibility/category/tag filters, reading ids only
+     */
+    private List<Long> allowedRankedIds(LambdaQueryWrapper<Article> filter, Map<Long, SearchHit> rankedHits) {
+        Set<Long> allowed = listObjs(filter.select(Article::getId), id -> ((Number) id).longValue())
+                .stream().collect(Collectors.toSet());
+        return rankedHits.keySet().stream().filter(allowed::contains).collect(Collectors.toList());
+    }
+
+    private List<Article> listInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Article> byId = listByIds(ids).stream().collect(Collectors.toMap(Article::getId, a -> a));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Highlight title and summary (escaped), fall back to a content snippet when the summary has no match,
+     * and flag tags whose name matches
+     */
+    private void applyHighlights(ArticleResponse response, SearchHit hit, Highlighter highlighter) {
+        response.setTitle(hit.getTitleOffsets().isEmpty()
+                ? highlighter.highlight(response.getTitle())
+                : Highlighter.render(response.getTitle(), hit.getTitleOffsets()));
+
+        String summary = response.getSummary();
+        String snippet = null;
+        if (hit.getSummaryOffsets().isEmpty() && !highlighter.matches(summary) && !Boolean.TRUE.equals(response.getLocked())) {
+            snippet = highlighter.snippet(response.getContent(), SNIPPET_WINDOW);
+        }
+        if (snippet != null) {
+            response.setSummary(snippet);
+        } else {
+            response.setSummary(hit.getSummaryOffsets().isEmpty()
+                    ? highlighter.highlight(summary)
+                    : Highlighter.render(summary, hit.getSummaryOffsets()));
+        }
+
+        if (response.getTags() != null) {
+            for (TagDto tag : response.getTags()) {
+                if (highlighter.matches(tag.getName())) {
+                    tag.setHighlighted(true);
+                }
             }
-            return response;
-        });
+        }
     }
 
     @Override
@@ -183,18 +383,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                 .orderByDesc(Article::getPublishedAt)
                 .orderByDesc(Article::getCreatedAt)); // Fallback to created_at if not published
                 
-        return articles.stream()
-                .map(article -> mapToResponse(article, currentUser))
-                .collect(Collectors.toList());
-    }
-
-    private String highlight(String text, String keyword) {
-        if (!StringUtils.hasText(text) || !StringUtils.hasText(keyword)) {
-            return text;
-        }
-        // Simple case-insensitive replacement
-        // Note: For production, use regex with Pattern.CASE_INSENSITIVE
-        return text.replaceAll("(?i)" + java.util.regex.Pattern.quote(keyword), "<mark>$0</mark>");
+        return mapToResponses(articles, currentUser);
     }
 
     @Override
@@ -216,15 +405,20 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         // Handle Author
         article.setAuthorId(currentUser.getId());
         
-        // Handle auto fields
-        article.setWordCount(countWords(article.getContent()));
-        article.setReadingTime(calculateReadingTime(article.getWordCount()));
+        // Handle auto fields (single Markdown parse, persisted and reused for the response)
+        MarkdownUtils.RenderResult rendered = MarkdownUtils.render(article.getContent());
+        applyRender(article, rendered);
         
         if (article.getStatus() == ArticleStatus.PUBLISHED) {
             article.setPublishedAt(LocalDateTime.now());
         }
         
         save(article);
+        siteStats.adjust(SiteStats.Kind.ARTICLES, 1);
+        articleCountCache.invalidateAll();
+        articleRenderCache.put(article.getId(), article.getContent(), rendered);
+        searchService.index(article);
+        hotRanking.track(article);
         
         if (article.getStatus() == ArticleStatus.PUBLISHED) {
             triggerNotifications(article);
@@ -268,14 +462,18 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         // Ensure slug uniqueness (excluding current article)
         article.setSlug(ensureUniqueSlug(article.getSlug(), id));
         
-        article.setWordCount(countWords(article.getContent()));
-        article.setReadingTime(calculateReadingTime(article.getWordCount()));
+        MarkdownUtils.RenderResult rendered = MarkdownUtils.render(article.getContent());
+        applyRender(article, rendered);
         
         if (request.getStatus() == ArticleStatus.PUBLISHED && article.getPublishedAt() == null) {
             article.setPublishedAt(LocalDateTime.now());
         }
         
         updateById(article);
+        articleCountCache.invalidateAll();
+        articleRenderCache.put(article.getId(), article.getContent(), rendered);
+        searchService.index(article);
+        hotRanking.track(article);
 
         // Handle Tags Update
         if (request.getTagIds() != null) {
@@ -314,13 +512,8 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             }
         }
         
-        // Atomic increment view count
-        articleMapper.update(null, new LambdaUpdateWrapper<Article>()
-                .eq(Article::getId, id)
-                .setSql("view_count = view_count + 1"));
-        
-        // Reload to get updated count (optional, or just manually increment local object)
-        article.setViewCount(article.getViewCount() + 1);
+        // Buffered view count, written back in batches by ViewCountBuffer
+        recordView(article);
         
         return mapToResponse(article, currentUser);
     }
@@ -344,25 +537,113 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             }
         }
         
-        // Atomic increment view count
-        articleMapper.update(null, new LambdaUpdateWrapper<Article>()
-                .eq(Article::getId, article.getId())
-                .setSql("view_count = view_count + 1"));
-
-        article.setViewCount(article.getViewCount() + 1);
+        // Buffered view count, written back in batches by ViewCountBuffer
+        recordView(article);
         
         return mapToResponse(article, currentUser);
     }
 
     @Override
-    public IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status, String sort) {
-        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+    public IPage<ArticleResponse> getArticleList(Page<Article> page, Long categoryId, Long tagId, String status, String sort, CountMode countMode) {
         User currentUser = tryGetCurrentUser();
+        LambdaQueryWrapper<Article> wrapper = listFilter(categoryId, tagId, status, currentUser);
+        
+        boolean hot = "hottest".equalsIgnoreCase(sort) || "hot".equalsIgnoreCase(sort);
+        
+        // Unfiltered public hot lists are served from the in-memory ranking while the page is within its top;
+        // guests only ever see published articles, so a PUBLISHED status filters nothing further
+        boolean unfilteredStatus = !StringUtils.hasText(status) || ArticleStatus.PUBLISHED.name().equalsIgnoreCase(status);
+        if (hot && currentUser == null && unfilteredStatus && categoryId == null && tagId == null) {
+            List<Long> rankedIds = hotRanking.page(page.offset(), page.getSize());
+            if (rankedIds != null) {
+                return rankedArticlePage(page, rankedIds, hotRanking.total());
+            }
+        }
+        
+        // Sorting logic
+        wrapper.orderByDesc(Article::getIsTop); // Top articles always first
+        
+        if (hot) {
+            wrapper.orderByDesc(Article::getScore);
+            wrapper.orderByDesc(Article::getPublishedAt);
+        } else {
+            // Default newest
+            wrapper.orderByDesc(Article::getPublishedAt);
+            wrapper.orderByDesc(Article::getCreatedAt);
+        }
+        
+        String signature = "list|" + (StringUtils.hasText(status) ? status.toUpperCase() : "") + "|" + categoryId + "|" + tagId + "|" + roleClass(currentUser);
+        Page<Article> articlePage = countedPage(page, wrapper, signature, countMode);
+        
+        return toResponsePage(articlePage, currentUser);
+    }
+
+    /**
+     * Run a page query, taking the total from ArticleCountCache in APPROX mode and skipping
+     * the COUNT(*) entirely in NONE mode (total reported as -1)
+     */
+    private Page<Article> countedPage(Page<Article> page, LambdaQueryWrapper<Article> wrapper, String signature, CountMode countMode) {
+        Long total = null;
+        if (countMode == CountMode.NONE) {
+            total = -1L;
+        } else if (countMode == CountMode.APPROX) {
+            total = articleCountCache.get(signature);
+        }
+        if (total != null) {
+            page.setSearchCount(false);
+            Page<Article> articlePage = page(page, wrapper);
+            articlePage.setTotal(total);
+            return articlePage;
+        }
+        Page<Article> articlePage = page(page, wrapper);
+        articleCountCache.put(signature, articlePage.getTotal());
+        return articlePage;
+    }
+
+    /**
+     * What part of the visibility filter applies to the viewer: guests and admins each share
+     * one filter, other users also see their own drafts and private articles
+     */
+    private static String roleClass(User currentUser) {
+        if (currentUser == null) {
+            return "guest";
+        }
+        return "admin".equals(currentUser.getRole()) ? "admin" : "user:" + currentUser.getId();
+    }
+
+    @Override
+    public CursorPage<ArticleResponse> scrollArticles(Long categoryId, Long tagId, String status, String cursor, Integer size) {
+        User currentUser = tryGetCurrentUser();
+        return keysetPage(listFilter(categoryId, tagId, status, currentUser), cursor, size, currentUser);
+    }
+
+    private LambdaQueryWrapper<Article> listFilter(Long categoryId, Long tagId, String status, User currentUser) {
+        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
 
         // 1. Status & Visibility Filter
-        // - Public: see Published && (Visibility != PRIVATE)
-        // - Author: see all their own (Drafts, Private included)
-        // - Admin: see all
+        applyVisibility(wrapper, currentUser);
+        
+        if (StringUtils.hasText(status)) {
+            wrapper.eq(Article::getStatus, ArticleStatus.valueOf(status.toUpperCase()));
+        }
+        
+        if (categoryId != null) {
+            wrapper.eq(Article::getCategoryId, categoryId);
+        }
+        
+        if (tagId != null) {
+            wrapper.inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id = " + tagId);
+        }
+        return wrapper;
+    }
+
+    /**
+     * Visibility rules shared by lists and search:
+     * - Public: see Published && (Visibility != PRIVATE)
+     * - Author: see all their own (Drafts, Private included)
+     * - Admin: see all
+     */
+    private static void applyVisibility(LambdaQueryWrapper<Article> wrapper, User currentUser) {
         wrapper.and(w -> {
             // Base condition: Published and NOT Private
             w.and(b -> b.eq(Article::getStatus, ArticleStatus.PUBLISHED)
@@ -382,34 +663,80 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                 }
             }
         });
-        
-        if (StringUtils.hasText(status)) {
-            wrapper.eq(Article::getStatus, ArticleStatus.valueOf(status.toUpperCase()));
-        }
-        
-        if (categoryId != null) {
-            wrapper.eq(Article::getCategoryId, categoryId);
+    }
+
+    /**
+     * Keyset page in list order (pinned first, then newest published, id as tie-break).
+     * Seeks past the cursor's (is_top, published_at, id) on idx_top_published_id instead of
+     * skipping rows with OFFSET, and fetches one extra row to detect another page rather than
+     * running COUNT(*). Unpublished rows (published_at NULL) sort last within each is_top group.
+     * <p>
+     * A cursor page is read one is_top group at a time: the rest of the cursor's group, then,
+     * past the last pinned article, the top of the unpinned group. Each query pins is_top with
+     * an equality and expands the (published_at, id) comparison into plain ranges, so each one
+     * is a single bounded range scan and does not turn into a filtered scan.
+     */
+    private CursorPage<ArticleResponse> keysetPage(LambdaQueryWrapper<Article> wrapper, String cursor, Integer size, User currentUser) {
+        int limit = cursorLimit(size);
+        CursorUtils.ArticlePosition after = CursorUtils.decodeArticle(cursor);
+        List<Article> articles;
+        if (after == null) {
+            articles = list(wrapper.orderByDesc(Article::getIsTop)
+                    .orderByDesc(Article::getPublishedAt)
+                    .orderByDesc(Article::getId)
+                    .last("LIMIT " + (limit + 1)));
+        } else {
+            articles = new ArrayList<>(list(groupAfter(wrapper.clone(), after, limit + 1)));
+            if (after.isTop() && articles.size() <= limit) {
+                articles.addAll(list(groupAfter(wrapper, null, limit + 1 - articles.size())));
+            }
         }
-        
-        if (tagId != null) {
-            wrapper.inSql(Article::getId, "SELECT article_id FROM article_tags WHERE tag_id = " + tagId);
+
+        boolean hasMore = articles.size() > limit;
+        if (hasMore) {
+            articles = articles.subList(0, limit);
         }
-        
-        // Sorting logic
-        wrapper.orderByDesc(Article::getIsTop); // Top articles always first
-        
-        if ("hottest".equalsIgnoreCase(sort) || "hot".equalsIgnoreCase(sort)) {
-            wrapper.orderByDesc(Article::getScore);
-            wrapper.orderByDesc(Article::getPublishedAt);
+        return new CursorPage<>(mapToResponses(articles, currentUser), hasMore ? nextCursor(articles) : null, hasMore);
+    }
+
+    /**
+     * Rows of one is_top group after the position (the unpinned group from its start when null)
+     */
+    private static LambdaQueryWrapper<Article> groupAfter(LambdaQueryWrapper<Article> wrapper,
+                                                          CursorUtils.ArticlePosition after, int limit) {
+        if (after == null) {
+            wrapper.eq(Article::getIsTop, false);
         } else {
-            // Default newest
-            wrapper.orderByDesc(Article::getPublishedAt);
-            wrapper.orderByDesc(Article::getCreatedAt);
+            wrapper.eq(Article::getIsTop, after.isTop());
+            if (after.getPublishedAt() != null) {
+                wrapper.and(w -> w.lt(Article::getPublishedAt, after.getPublishedAt())
+                        .or(t -> t.eq(Article::getPublishedAt, after.getPublishedAt()).lt(Article::getId, after.getId()))
+                        .or().isNull(Article::getPublishedAt));
+            } else {
+                wrapper.isNull(Article::getPublishedAt).lt(Article::getId, after.getId());
+            }
         }
-        
-        Page<Article> articlePage = page(page, wrapper);
-        
-        return articlePage.convert(article -> mapToResponse(article, currentUser));
+        return wrapper.orderByDesc(Article::getPublishedAt)
+                .orderByDesc(Article::getId)
+                .last("LIMIT " + limit);
+    }
+
+    private static String nextCursor(List<Article> articles) {
+        Article last = articles.get(articles.size() - 1);
+        return CursorUtils.encodeArticle(Boolean.TRUE.equals(last.getIsTop()), last.getPublishedAt(), last.getId());
+    }
+
+    private static int cursorLimit(Integer size) {
+        return size == null || size <= 0 ? DEFAULT_CURSOR_PAGE_SIZE : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+    }
+
+    /**
+     * Load a page of articles in the given id order
+     */
+    private IPage<ArticleResponse> rankedArticlePage(Page<Article> page, List<Long> ids, long total) {
+        Page<Article> articlePage = new Page<>(page.getCurrent(), page.getSize(), total);
+        articlePage.setRecords(listInOrder(ids));
+        return toResponsePage(articlePage, null);
     }
 
     @Override
@@ -423,7 +750,13 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         }
         
         // Soft delete (if configured in MP) or logical delete
-        removeById(id); 
+        if (removeById(id)) {
+            siteStats.adjust(SiteStats.Kind.ARTICLES, -1);
+            articleCountCache.invalidateAll();
+        }
+        articleRenderCache.invalidate(id);
+        searchService.remove(id);
+        hotRanking.remove(id);
     }
 
     @Override
@@ -437,6 +770,8 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             article.setStatus(ArticleStatus.PUBLISHED);
             article.setPublishedAt(LocalDateTime.now());
             updateById(article);
+            articleCountCache.invalidateAll();
+            hotRanking.track(article);
             triggerNotifications(article);
         }
     }
@@ -447,20 +782,12 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         User currentUser = getCurrentUser();
         Long userId = currentUser.getId();
         
-        // Check if already liked
-        Long count = articleLikeMapper.selectCount(new LambdaQueryWrapper<ArticleLike>()
-                .eq(ArticleLike::getArticleId, id)
-                .eq(ArticleLike::getUserId, userId));
-                
-        if (count > 0) {
-            return; // Already liked
+        // Insert like record; a repeated like is a no-op
+        if (articleLikeMapper.insertIgnore(id, userId) == 0) {
+            return;
         }
-        
-        // Insert like record
-        ArticleLike like = new ArticleLike();
-        like.setArticleId(id);
-        like.setUserId(userId);
-        articleLikeMapper.insert(like);
+        likeIndex.added(id, userId);
+        hotRanking.onLike(id, 1);
         
         // Increment article like count
         articleMapper.update(null, new LambdaUpdateWrapper<Article>()
@@ -480,32 +807,31 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
                 .eq(ArticleLike::getUserId, userId));
                 
         if (rows > 0) {
+            likeIndex.removed(id, userId);
+            hotRanking.onLike(id, -1);
             // Decrement article like count
             articleMapper.update(null, new LambdaUpdateWrapper<Article>()
                     .eq(Article::getId, id)
-                    .setSql("like_count = like_count - 1"));
+                    .setSql("like_count = GREATEST(like_count, 1) - 1"));
         }
     }
 
     @Override
     public boolean hasLiked(Long id) {
-        try {
-            User currentUser = getCurrentUser();
-            Long count = articleLikeMapper.selectCount(new LambdaQueryWrapper<ArticleLike>()
-                    .eq(ArticleLike::getArticleId, id)
-                    .eq(ArticleLike::getUserId, currentUser.getId()));
-            return count > 0;
-        } catch (Exception e) {
-            // If not logged in, return false
-            return false;
-        }
+        User currentUser = tryGetCurrentUser();
+        return currentUser != null && likeIndex.hasLiked(id, currentUser.getId());
     }
 
     @Override
     @Transactional
     public void processScheduledArticle(Article article) {
         article.setStatus(ArticleStatus.PUBLISHED);
+        MarkdownUtils.RenderResult rendered = MarkdownUtils.render(article.getContent());
+        applyRender(article, rendered);
         updateById(article);
+        articleCountCache.invalidateAll();
+        articleRenderCache.put(article.getId(), article.getContent(), rendered);
+        hotRanking.track(article);
         triggerNotifications(article);
     }
 
@@ -531,6 +857,8 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             }
             
             updateById(article);
+            articleCountCache.invalidateAll();
+            hotRanking.track(article);
             
             if (newStatus == ArticleStatus.PUBLISHED) {
                 triggerNotifications(article);
@@ -579,22 +907,26 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         return slug + "-" + System.currentTimeMillis();
     }
     
-    private Integer countWords(String content) {
-        if (!StringUtils.hasText(content)) return 0;
-        
-        int count = 0;
-        // Regex to match Chinese characters or English words (including numbers)
-        // Chinese: [\u4e00-\u9fa5]
-        // English/Number: [a-zA-Z0-9]+
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("([\\u4e00-\\u9fa5])|([a-zA-Z0-9]+)");
-        java.util.regex.Matcher matcher = pattern.matcher(content);
-        
-        while (matcher.find()) {
-            count++;
-        }
-        return count;
+    private void recordView(Article article) {
+        viewCountBuffer.increment(article.getId());
+        hotRanking.onView(article.getId());
+        siteStats.onView();
+        trafficStats.onArticleView();
+        int stored = article.getViewCount() == null ? 0 : article.getViewCount();
+        article.setViewCount(stored + (int) viewCountBuffer.pending(article.getId()));
     }
-    
+
+    /**
+     * Copy a render result onto the entity so HTML, TOC and counters are stored with the row
+     */
+    private void applyRender(Article article, MarkdownUtils.RenderResult rendered) {
+        article.setHtmlContent(rendered.getHtml());
+        article.setTocJson(MarkdownUtils.toTocJson(rendered.getToc()));
+        article.setRenderVersion(MarkdownUtils.RENDER_VERSION);
+        article.setWordCount(rendered.getWordCount());
+        article.setReadingTime(calculateReadingTime(article.getWordCount()));
+    }
+
     private Integer calculateReadingTime(Integer wordCount) {
         if (wordCount == null || wordCount == 0) return 0;
         // Standard reading speed:
@@ -626,6 +958,105 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
     }
 
     private ArticleResponse mapToResponse(Article article, User currentUser) {
+        return mapToResponses(List.of(article), currentUser).get(0);
+    }
+
+    private IPage<ArticleResponse> toResponsePage(Page<Article> articlePage, User currentUser) {
+        Page<ArticleResponse> responsePage = new Page<>(articlePage.getCurrent(), articlePage.getSize(), articlePage.getTotal());
+        responsePage.setRecords(mapToResponses(articlePage.getRecords(), currentUser));
+        return responsePage;
+    }
+
+    /**
+     * Assemble responses for a batch of articles.
+     * Authors, categories and tags are resolved with one query per relation for the whole batch
+     * instead of one round trip per row; the current user's liked flags come from LikeIndex.
+     */
+    private List<ArticleResponse> mapToResponses(List<Article> articles, User currentUser) {
+        if (articles.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 1. Collect relation IDs for the whole batch
+        Set<Long> authorIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        List<Long> articleIds = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            if (article.getAuthorId() != null) authorIds.add(article.getAuthorId());
+            if (article.getCategoryId() != null) categoryIds.add(article.getCategoryId());
+            articleIds.add(article.getId());
+        }
+
+        // 2. Resolve each relation with a single query
+        Map<Long, UserDto> authors = new HashMap<>();
+        if (!authorIds.isEmpty()) {
+            for (User author : userMapper.selectBatchIds(authorIds)) {
+                UserDto userDto = new UserDto();
+                BeanUtils.copyProperties(author, userDto);
+                authors.put(author.getId(), userDto);
+            }
+        }
+
+        Map<Long, CategoryDto> categories = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            for (Category category : categoryMapper.selectBatchIds(categoryIds)) {
+                CategoryDto catDto = new CategoryDto();
+                BeanUtils.copyProperties(category, catDto);
+                categories.put(category.getId(), catDto);
+            }
+        }
+
+        Map<Long, List<TagDto>> tagsByArticle = loadTags(articleIds);
+
+        Set<Long> liked = currentUser == null ? Set.of() : likeIndex.likedAmong(currentUser.getId(), articleIds);
+
+        // 3. Assemble
+        List<ArticleResponse> responses = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            ArticleResponse response = toResponse(article, currentUser);
+            response.setAuthor(authors.get(article.getAuthorId()));
+            if (article.getCategoryId() != null) {
+                response.setCategory(categories.get(article.getCategoryId()));
+            }
+            List<TagDto> tags = tagsByArticle.get(article.getId());
+            if (tags != null) {
+                response.setTags(tags);
+            }
+            response.setLiked(liked.contains(article.getId()));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private Map<Long, List<TagDto>> loadTags(List<Long> articleIds) {
+        Map<Long, List<TagDto>> tagsByArticle = new HashMap<>();
+        List<ArticleTag> articleTags = articleTagMapper.selectList(new LambdaQueryWrapper<ArticleTag>()
+                .in(ArticleTag::getArticleId, articleIds));
+        if (articleTags.isEmpty()) {
+            return tagsByArticle;
+        }
+
+        Set<Long> tagIds = articleTags.stream().map(ArticleTag::getTagId).collect(Collectors.toSet());
+        Map<Long, TagDto> tags = new HashMap<>();
+        for (Tag tag : tagMapper.selectBatchIds(tagIds)) {
+            TagDto dto = new TagDto();
+            BeanUtils.copyProperties(tag, dto);
+            tags.put(tag.getId(), dto);
+        }
+
+        for (ArticleTag articleTag : articleTags) {
+            TagDto dto = tags.get(articleTag.getTagId());
+            if (dto != null) {
+                tagsByArticle.computeIfAbsent(articleTag.getArticleId(), k -> new ArrayList<>()).add(dto);
+            }
+        }
+        return tagsByArticle;
+    }
+
+    /**
+     * Copy scalar fields and apply the visibility lock / Markdown rendering for one article
+     */
+    private ArticleResponse toResponse(Article article, User currentUser) {
         ArticleResponse response = new ArticleResponse();
         BeanUtils.copyProperties(article, response);
         
@@ -653,47 +1084,27 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             response.setContentHtml("<div class=\"vip-lock\">This content is for VIP members only.</div>");
             // Keep summary/title/cover/tags/category public
         } else {
-            // Render Markdown to HTML
-            response.setContentHtml(MarkdownUtils.renderHtml(article.getContent()));
-            // Generate TOC
-            response.setToc(MarkdownUtils.extractToc(article.getContent()));
-        }
-        
-        // Fill Author info
-        User author = userMapper.selectById(article.getAuthorId());
-        if (author != null) {
-            UserDto userDto = new UserDto();
-            BeanUtils.copyProperties(author, userDto);
-            response.setAuthor(userDto);
-        }
-        
-        // Fill Category info
-        if (article.getCategoryId() != null) {
-            Category category = categoryMapper.selectById(article.getCategoryId());
-            if (category != null) {
-                CategoryDto catDto = new CategoryDto();
-                BeanUtils.copyProperties(category, catDto);
-                response.setCategory(catDto);
+            // Serve the HTML and TOC stored at write time while they match the current render version,
+            // otherwise fall back to the render cache until ArticleRenderTask catches up
+            List<ArticleResponse.TocItem> storedToc = isRenderCurrent(article) ? MarkdownUtils.parseTocJson(article.getTocJson()) : null;
+            if (storedToc != null) {
+                response.setContentHtml(article.getHtmlContent());
+                response.setToc(storedToc);
+            } else {
+                MarkdownUtils.RenderResult rendered = articleRenderCache.get(article.getId(), article.getContent());
+                response.setContentHtml(rendered.getHtml());
+                response.setToc(rendered.getToc());
             }
         }
         
-        // Fill Tags
-        List<ArticleTag> articleTags = articleTagMapper.selectList(new LambdaQueryWrapper<ArticleTag>()
-                .eq(ArticleTag::getArticleId, article.getId()));
-        if (!articleTags.isEmpty()) {
-            List<Long> tagIds = articleTags.stream().map(ArticleTag::getTagId).collect(Collectors.toList());
-            List<Tag> tags = tagMapper.selectBatchIds(tagIds);
-            List<TagDto> tagDtos = tags.stream().map(tag -> {
-                TagDto dto = new TagDto();
-                BeanUtils.copyProperties(tag, dto);
-                return dto;
-            }).collect(Collectors.toList());
-            response.setTags(tagDtos);
-        }
-        
         return response;
     }
     
+    private boolean isRenderCurrent(Article article) {
+        return article.getHtmlContent() != null
+                && Integer.valueOf(MarkdownUtils.RENDER_VERSION).equals(article.getRenderVersion());
+    }
+
     // Overload for internal use without user check needed (e.g. creation)
     private ArticleResponse mapToResponse(Article article) {
         return mapToResponse(article, tryGetCurrentUser());
@@ -6,6 +6,7 @@ import com.myvlog.blog.dto.CategoryDto;
 import com.myvlog.blog.entity.Category;
 import com.myvlog.blog.mapper.CategoryMapper;
 import com.myvlog.blog.service.CategoryService;
+import com.myvlog.blog.stats.SiteStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> implements CategoryService {
 
     private final CategoryMapper categoryMapper;
+    private final SiteStats siteStats;
 
     @Override
     @Transactional
@@ -37,6 +39,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
         }
 
         categoryMapper.insert(category);
+        siteStats.adjust(SiteStats.Kind.CATEGORIES, 1);
         
         CategoryDto result = new CategoryDto();
         BeanUtils.copyProperties(category, result);
@@ -62,7 +65,9 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     @Override
     @Transactional
     public void deleteCategory(Long id) {
-        categoryMapper.deleteById(id);
+        if (categoryMapper.deleteById(id) > 0) {
+            siteStats.adjust(SiteStats.Kind.CATEGORIES, -1);
+        }
     }
 
     @Override
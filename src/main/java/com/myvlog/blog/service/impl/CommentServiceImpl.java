@@ -1,11 +1,14 @@
 package com.myvlog.blog.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.myvlog.blog.cache.CommentTreeCache;
 import com.myvlog.blog.dto.CommentAdminDto;
 import com.myvlog.blog.dto.CommentRequest;
 import com.myvlog.blog.dto.CommentResponse;
+import com.myvlog.blog.dto.CursorPage;
 import com.myvlog.blog.dto.UserDto;
 import com.myvlog.blog.entity.Article;
 import com.myvlog.blog.entity.Comment;
@@ -14,19 +17,25 @@ import com.myvlog.blog.enums.CommentStatus;
 import com.myvlog.blog.mapper.ArticleMapper;
 import com.myvlog.blog.mapper.CommentMapper;
 import com.myvlog.blog.mapper.UserMapper;
+import com.myvlog.blog.security.AuthUser;
 import com.myvlog.blog.service.CommentService;
+import com.myvlog.blog.stats.HotRanking;
+import com.myvlog.blog.stats.TrafficStats;
+import com.myvlog.blog.utils.CursorUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,8 +46,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> implements CommentService {
 
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
     private final ArticleMapper articleMapper;
     private final UserMapper userMapper;
+    private final CommentTreeCache commentTreeCache;
+    private final HotRanking hotRanking;
+    private final TrafficStats trafficStats;
 
     /**
      * 发表新评论
@@ -61,6 +76,10 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         // 2. 初始化评论实体
         Comment comment = new Comment();
         BeanUtils.copyProperties(request, comment);
+        // 顶级评论统一存 NULL，分页查询按 parent_id IS NULL 走索引
+        if (comment.getParentId() != null && comment.getParentId() == 0) {
+            comment.setParentId(null);
+        }
         
         if (currentUser != null) {
             // 登录用户评论逻辑
@@ -86,65 +105,221 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         comment.setUserAgent(httpRequest.getHeader("User-Agent"));
 
         save(comment);
+        commentTreeCache.invalidate(comment.getArticleId());
+        trafficStats.onComment();
 
-        // 4. 异步/同步更新文章的评论计数值
-        article.setCommentCount(article.getCommentCount() + 1);
-        articleMapper.updateById(article);
+        // 4. 只有已审核的评论计入文章评论数 (原子更新单列，不回写整行)
+        if (comment.getStatus() == CommentStatus.APPROVED) {
+            adjustCommentCount(comment.getArticleId(), 1);
+        }
 
         return mapToResponse(comment);
     }
 
     /**
      * 获取文章的评论列表 (树形结构)
-     * 逻辑：先查询出所有已审核的扁平化列表，然后在内存中递归组装成树
+     * 逻辑：先查询出所有已审核的扁平化列表，批量加载评论者信息，再在内存中一次遍历组装成树；
+     * 组装结果按文章缓存，评论新增、删除、审核时失效
      */
     @Override
     public List<CommentResponse> getCommentsByArticleId(Long articleId) {
+        return commentTreeCache.get(articleId, this::buildCommentTree);
+    }
+
+    private List<CommentResponse> buildCommentTree(Long articleId) {
         // 1. 获取该文章下所有已通过审核的评论，按时间正序排列
         List<Comment> comments = list(new LambdaQueryWrapper<Comment>()
                 .eq(Comment::getArticleId, articleId)
                 .eq(Comment::getStatus, CommentStatus.APPROVED)
                 .orderByAsc(Comment::getCreatedAt));
 
-        // 2. 将实体转换为 Response DTO
-        List<CommentResponse> dtos = comments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        // 2. 一次查询加载所有评论者，避免逐条 selectById
+        Map<Long, UserDto> users = loadUsers(comments.stream()
+                .map(Comment::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
 
-        // 3. 构建树形结构：找到所有根评论 (parentId 为空或 0)
-        List<CommentResponse> roots = dtos.stream()
-                .filter(c -> c.getParentId() == null || c.getParentId() == 0)
-                .collect(Collectors.toList());
+        // 3. 将实体转换为 Response DTO，并按 ID 建立索引 (保持时间顺序)
+        Map<Long, CommentResponse> byId = new LinkedHashMap<>(comments.size() * 2);
+        for (Comment comment : comments) {
+            byId.put(comment.getId(), toResponse(comment, users));
+        }
 
-        // 4. 按父评论 ID 对回复进行分组，方便后续快速查找
-        Map<Long, List<CommentResponse>> repliesMap = dtos.stream()
-                .filter(c -> c.getParentId() != null && c.getParentId() != 0)
-                .collect(Collectors.groupingBy(CommentResponse::getParentId));
+        // 4. 单次遍历挂接父子关系，不使用递归，任意深度的回复链都不会栈溢出
+        //    父评论未通过审核 (不在列表中) 的回复与之前一样不展示
+        List<CommentResponse> roots = new ArrayList<>();
+        for (CommentResponse response : byId.values()) {
+            Long parentId = response.getParentId();
+            if (parentId == null || parentId == 0) {
+                roots.add(response);
+            } else {
+                CommentResponse parent = byId.get(parentId);
+                if (parent != null) {
+                    parent.getReplies().add(response);
+                }
+            }
+        }
+        return roots;
+    }
 
-        // 5. 递归填充子回复
-        roots.forEach(root -> fillReplies(root, repliesMap));
+    /**
+     * 游标分页获取文章的顶级评论，附带每个楼层的回复数，回复通过 getReplies 按需展开
+     */
+    @Override
+    public CursorPage<CommentResponse> getCommentThreads(Long articleId, String cursor, Integer size) {
+        LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<Comment>()
+                .eq(Comment::getArticleId, articleId)
+                .eq(Comment::getStatus, CommentStatus.APPROVED)
+                .isNull(Comment::getParentId);
+        return cursorPage(articleId, wrapper, cursor, size);
+    }
 
-        return roots;
+    /**
+     * 游标分页获取某条评论的直接回复
+     */
+    @Override
+    public CursorPage<CommentResponse> getReplies(Long commentId, String cursor, Integer size) {
+        Comment parent = getById(commentId);
+        if (parent == null || parent.getStatus() != CommentStatus.APPROVED) {
+            throw new RuntimeException("Comment not found");
+        }
+        // 带上 article_id 和 status，使查询命中 (article_id, status, parent_id, created_at) 复合索引
+        LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<Comment>()
+                .eq(Comment::getArticleId, parent.getArticleId())
+                .eq(Comment::getStatus, CommentStatus.APPROVED)
+                .eq(Comment::getParentId, commentId);
+        return cursorPage(parent.getArticleId(), wrapper, cursor, size);
     }
 
     /**
-     * 递归填充评论回复列表
+     * 按 (created_at, id) 做 keyset 分页：多取一条判断是否还有下一页，不做 COUNT 和 OFFSET
      */
-    private void fillReplies(CommentResponse parent, Map<Long, List<CommentResponse>> repliesMap) {
-        List<CommentResponse> replies = repliesMap.get(parent.getId());
-        if (replies != null) {
-            parent.setReplies(replies);
-            // 继续向下递归，处理二级及以上深度的回复
-            replies.forEach(reply -> fillReplies(reply, repliesMap));
+    private CursorPage<CommentResponse> cursorPage(Long articleId, LambdaQueryWrapper<Comment> wrapper, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? DEFAULT_CURSOR_PAGE_SIZE : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        CursorUtils.Position after = CursorUtils.decode(cursor);
+        if (after != null) {
+            wrapper.and(w -> w.gt(Comment::getCreatedAt, after.getCreatedAt())
+                    .or(o -> o.eq(Comment::getCreatedAt, after.getCreatedAt()).gt(Comment::getId, after.getId())));
+        }
+        wrapper.orderByAsc(Comment::getCreatedAt)
+                .orderByAsc(Comment::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<Comment> comments = list(wrapper);
+        boolean hasMore = comments.size() > limit;
+        if (hasMore) {
+            comments = comments.subList(0, limit);
         }
+        if (comments.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null, false);
+        }
+
+        Map<Long, UserDto> users = loadUsers(comments.stream()
+                .map(Comment::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Long, Long> replyCounts = countReplies(articleId, comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList()));
+
+        List<CommentResponse> items = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            CommentResponse response = toResponse(comment, users);
+            response.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0L));
+            items.add(response);
+        }
+
+        Comment last = comments.get(comments.size() - 1);
+        String nextCursor = hasMore ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * 一次分组查询统计一页评论各自的已审核回复数
+     */
+    private Map<Long, Long> countReplies(Long articleId, List<Long> parentIds) {
+        Map<Long, Long> counts = new HashMap<>(parentIds.size() * 2);
+        for (Map<String, Object> row : baseMapper.countApprovedReplies(articleId, parentIds)) {
+            counts.put(((Number) row.get("parentId")).longValue(), ((Number) row.get("replyCount")).longValue());
+        }
+        return counts;
+    }
+
+    private static CommentResponse toResponse(Comment comment, Map<Long, UserDto> users) {
+        CommentResponse response = new CommentResponse();
+        BeanUtils.copyProperties(comment, response);
+        if (comment.getUserId() != null) {
+            response.setUser(users.get(comment.getUserId()));
+        }
+        return response;
+    }
+
+    /**
+     * 批量加载评论者信息
+     */
+    private Map<Long, UserDto> loadUsers(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, UserDto> users = new HashMap<>(userIds.size() * 2);
+        for (User user : userMapper.selectBatchIds(userIds)) {
+            UserDto userDto = new UserDto();
+            BeanUtils.copyProperties(user, userDto);
+            users.put(user.getId(), userDto);
+        }
+        return users;
     }
 
     /**
      * 分页查询评论 (后台管理使用)
      */
     @Override
-    public Page<CommentAdminDto> getCommentPage(Integer page, Integer size, String status) {
+    public Page<CommentAdminDto> getCommentPage(Integer page, Integer size, String status, Long articleId) {
         Page<Comment> commentPage = new Page<>(page, size);
+        LambdaQueryWrapper<Comment> wrapper = adminFilter(status, articleId);
+        wrapper.orderByDesc(Comment::getCreatedAt);
+        Page<Comment> result = page(commentPage, wrapper);
+        
+        // 转换为包含文章标题和用户昵称的管理端专用 DTO
+        Page<CommentAdminDto> dtoPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
+        dtoPage.setRecords(toAdminDtos(result.getRecords()));
+        return dtoPage;
+    }
+
+    /**
+     * 游标分页查询评论 (后台审核队列使用)
+     * 按 (created_at, id) 倒序做 keyset 分页，不做 COUNT 和 OFFSET，待审核队列再长翻页也不会变慢
+     */
+    @Override
+    public CursorPage<CommentAdminDto> getCommentFeed(String status, Long articleId, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? DEFAULT_CURSOR_PAGE_SIZE : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        LambdaQueryWrapper<Comment> wrapper = adminFilter(status, articleId);
+        CursorUtils.Position before = CursorUtils.decode(cursor);
+        if (before != null) {
+            wrapper.and(w -> w.lt(Comment::getCreatedAt, before.getCreatedAt())
+                    .or(o -> o.eq(Comment::getCreatedAt, before.getCreatedAt()).lt(Comment::getId, before.getId())));
+        }
+        wrapper.orderByDesc(Comment::getCreatedAt)
+                .orderByDesc(Comment::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<Comment> comments = list(wrapper);
+        boolean hasMore = comments.size() > limit;
+        if (hasMore) {
+            comments = comments.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(toAdminDtos(comments), nextCursor, hasMore);
+    }
+
+    /**
+     * 后台列表的公共过滤条件：状态、所属文章
+     */
+    private LambdaQueryWrapper<Comment> adminFilter(String status, Long articleId) {
         LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<>();
         // 按状态过滤
         if (status != null && !status.isEmpty()) {
@@ -155,34 +330,53 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
                 }
             }
         }
-        wrapper.orderByDesc(Comment::getCreatedAt);
-        Page<Comment> result = page(commentPage, wrapper);
-        
-        // 转换为包含文章标题和用户昵称的管理端专用 DTO
-        Page<CommentAdminDto> dtoPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
-        List<CommentAdminDto> dtos = result.getRecords().stream().map(comment -> {
+        // 按文章过滤
+        if (articleId != null) {
+            wrapper.eq(Comment::getArticleId, articleId);
+        }
+        return wrapper;
+    }
+
+    /**
+     * 将一页评论转换为管理端 DTO
+     * 文章只查 id 和标题 (不加载正文)，用户只查 id、用户名和昵称，每页各一次批量查询
+     */
+    private List<CommentAdminDto> toAdminDtos(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> articleIds = comments.stream().map(Comment::getArticleId).collect(Collectors.toSet());
+        Map<Long, String> titles = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                        .select(Article::getId, Article::getTitle)
+                        .in(Article::getId, articleIds))
+                .stream()
+                .collect(Collectors.toMap(Article::getId, article -> article.getTitle() == null ? "" : article.getTitle()));
+
+        Set<Long> userIds = comments.stream().map(Comment::getUserId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, User> users = userIds.isEmpty() ? Collections.emptyMap() : userMapper.selectList(new LambdaQueryWrapper<User>()
+                        .select(User::getId, User::getUsername, User::getNickname)
+                        .in(User::getId, userIds))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+
+        List<CommentAdminDto> dtos = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
             CommentAdminDto dto = new CommentAdminDto();
             BeanUtils.copyProperties(comment, dto);
-            
-            // 关联查询文章标题 (方便管理员一眼看出评论属于哪篇文章)
-            Article article = articleMapper.selectById(comment.getArticleId());
-            if (article != null) {
-                dto.setArticleTitle(article.getTitle());
-            }
-            
+
+            // 文章标题 (方便管理员一眼看出评论属于哪篇文章)
+            dto.setArticleTitle(titles.get(comment.getArticleId()));
+
             // 填充用户信息
-            if (comment.getUserId() != null) {
-                User user = userMapper.selectById(comment.getUserId());
-                if (user != null) {
-                    dto.setUsername(user.getUsername());
-                    dto.setUserNickname(user.getNickname());
-                }
+            User user = comment.getUserId() == null ? null : users.get(comment.getUserId());
+            if (user != null) {
+                dto.setUsername(user.getUsername());
+                dto.setUserNickname(user.getNickname());
             }
-            return dto;
-        }).collect(Collectors.toList());
-        
-        dtoPage.setRecords(dtos);
-        return dtoPage;
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     /**
@@ -205,30 +399,36 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         }
 
         removeById(id);
+        commentTreeCache.invalidate(comment.getArticleId());
         
-        // 更新文章评论总数 (-1)
-        Article article = articleMapper.selectById(comment.getArticleId());
-        if (article != null && article.getCommentCount() > 0) {
-            article.setCommentCount(article.getCommentCount() - 1);
-            articleMapper.updateById(article);
+        // 删除会级联删除整棵回复子树，直接按已审核评论重新计数，而不是简单 -1
+        long before = commentCount(comment.getArticleId());
+        articleMapper.recountComments(comment.getArticleId());
+        int delta = (int) (commentCount(comment.getArticleId()) - before);
+        if (delta != 0) {
+            hotRanking.onComment(comment.getArticleId(), delta);
         }
     }
 
+    /**
+     * 读取文章当前存储的评论数，只查 comment_count 一列
+     */
+    private long commentCount(Long articleId) {
+        Article article = articleMapper.selectOne(new LambdaQueryWrapper<Article>()
+                .select(Article::getId, Article::getCommentCount)
+                .eq(Article::getId, articleId));
+        return article == null || article.getCommentCount() == null ? 0 : article.getCommentCount();
+    }
+
     /**
      * 审核评论 (通过/拒绝)
      */
     @Override
+    @Transactional
     public void auditComment(Long id, String status) {
         // 权限硬校验：必须是管理员角色
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = false;
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            User currentUser = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUsername, username));
-            if (currentUser != null && "admin".equals(currentUser.getRole())) {
-                isAdmin = true;
-            }
-        }
+        AuthUser currentUser = AuthUser.current();
+        boolean isAdmin = currentUser != null && currentUser.isAdmin();
         
         if (!isAdmin) {
             throw new RuntimeException("No permission to audit comment");
@@ -239,14 +439,41 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             throw new RuntimeException("Comment not found");
         }
         
+        CommentStatus newStatus;
         try {
-            // 动态转换并更新状态
-            CommentStatus newStatus = CommentStatus.valueOf(status.toUpperCase());
-            comment.setStatus(newStatus);
-            updateById(comment);
+            // 动态转换状态
+            newStatus = CommentStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid status: " + status);
         }
+
+        // 以旧状态为条件更新 (CAS)，并发审核同一条评论时只有一次生效，计数不会重复增减
+        CommentStatus oldStatus = comment.getStatus();
+        boolean changed = update(new LambdaUpdateWrapper<Comment>()
+                .set(Comment::getStatus, newStatus)
+                .eq(Comment::getId, id)
+                .eq(Comment::getStatus, oldStatus));
+        if (!changed) {
+            return;
+        }
+        commentTreeCache.invalidate(comment.getArticleId());
+
+        // 进入或离开“已通过”状态时才调整文章评论数
+        if (oldStatus != CommentStatus.APPROVED && newStatus == CommentStatus.APPROVED) {
+            adjustCommentCount(comment.getArticleId(), 1);
+        } else if (oldStatus == CommentStatus.APPROVED && newStatus != CommentStatus.APPROVED) {
+            adjustCommentCount(comment.getArticleId(), -1);
+        }
+    }
+
+    /**
+     * 原子地增减文章评论数，只更新 comment_count 一列；减到 0 为止 (列为 UNSIGNED)
+     */
+    private void adjustCommentCount(Long articleId, int delta) {
+        articleMapper.update(null, new LambdaUpdateWrapper<Article>()
+                .eq(Article::getId, articleId)
+                .setSql(delta > 0 ? "comment_count = comment_count + 1" : "comment_count = GREATEST(comment_count, 1) - 1"));
+        hotRanking.onComment(articleId, delta);
     }
 
     /**
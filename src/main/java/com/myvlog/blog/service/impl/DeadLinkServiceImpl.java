@@ -9,6 +9,7 @@ import com.myvlog.blog.mapper.ArticleMapper;
 import com.myvlog.blog.mapper.CommentMapper;
 import com.myvlog.blog.mapper.DeadLinkMapper;
 import com.myvlog.blog.service.DeadLinkService;
+import com.myvlog.blog.utils.MarkdownUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -68,8 +69,8 @@ public class DeadLinkServiceImpl extends ServiceImpl<DeadLinkMapper, DeadLink> i
         for (Article article : articles) {
             if (!StringUtils.hasText(article.getContent())) continue;
             
-            Set<String> urls = extractUrls(article.getContent());
-            for (String url : urls) {
+            // Links come from the same single-pass parse used for rendering
+            for (String url : MarkdownUtils.render(article.getContent()).getLinks()) {
                 checkAndSave(url, "ARTICLE", article.getId());
             }
         }
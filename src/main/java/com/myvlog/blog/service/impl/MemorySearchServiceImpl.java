@@ -0,0 +1,214 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.search.Highlighter;
+import com.myvlog.blog.search.InvertedIndex;
+import com.myvlog.blog.search.SearchHit;
+import com.myvlog.blog.search.Tokenizer;
+import com.myvlog.blog.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process search over an {@link InvertedIndex} (CJK bigrams + Latin words, BM25).
+ * Built after startup by streaming articles in id-ordered chunks and kept current by
+ * ArticleServiceImpl mutations once their transaction commits. Every article is indexed regardless of status;
+ * ranked hits are checked against the caller's visibility/category/tag filter in the database, so hidden
+ * articles never take up the limit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "blog.search.engine", havingValue = "memory")
+public class MemorySearchServiceImpl implements SearchService {
+
+    private static final int FILTER_BATCH_SIZE = 500;
+    // Upper bound on ranked candidates examined for one search
+    private static final int MAX_WINDOW = 100_000;
+
+    private final ArticleMapper articleMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex index = new InvertedIndex();
+
+    // Articles changed while the initial build is running; the build must not overwrite them with older rows
+    private final Set<Long> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    @Value("${blog.search.build-batch-size:500}")
+    private int buildBatchSize = 500;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Article> chunk = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                        .select(Article::getId, Article::getTitle, Article::getSummary, Article::getContent)
+                        .gt(Article::getId, lastId)
+                        .orderByAsc(Article::getId)
+                        .last("LIMIT " + buildBatchSize));
+
+                lock.writeLock().lock();
+                try {
+                    for (Article article : chunk) {
+                        if (!touchedDuringBuild.contains(article.getId())) {
+                            index.add(article.getId(), article.getTitle(), article.getSummary(), article.getContent());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                if (chunk.size() < buildBatchSize) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        } finally {
+            building = false;
+            touchedDuringBuild.clear();
+        }
+        log.info("Search index built with {} articles and {} terms in {} ms.",
+                index.size(), index.termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Best {@code limit} hits that pass the filter. The index holds no status, category or tag
+     * columns, so ranked candidates are checked against the filter in batches, widening the
+     * candidate window until enough pass or the matches run out.
+     */
+    @Override
+    public List<SearchHit> search(String keyword, int limit, LambdaQueryWrapper<Article> filter) {
+        List<SearchHit> hits = new ArrayList<>();
+        if (!StringUtils.hasText(keyword) || limit <= 0) {
+            return hits;
+        }
+        List<String> terms = Tokenizer.tokenize(keyword);
+        boolean filtered = filter != null && StringUtils.hasText(filter.getSqlSegment());
+        Highlighter highlighter = Highlighter.compile(keyword);
+        Set<Long> added = new HashSet<>();
+
+        int window = limit;
+        int checked = 0;
+        while (true) {
+            List<InvertedIndex.Result> results;
+            lock.readLock().lock();
+            try {
+                results = index.search(terms, window);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            // Ranking is stable between rounds unless the index changed, so only the new tail is checked
+            List<InvertedIndex.Result> candidates = results.subList(Math.min(checked, results.size()), results.size());
+            for (int from = 0; from < candidates.size() && hits.size() < limit; from += FILTER_BATCH_SIZE) {
+                List<InvertedIndex.Result> batch = candidates.subList(from, Math.min(from + FILTER_BATCH_SIZE, candidates.size()));
+                Set<Long> allowed = filtered ? allowedIds(batch, filter) : null;
+                for (InvertedIndex.Result result : batch) {
+                    if (hits.size() == limit) {
+                        break;
+                    }
+                    // The index may change between rounds, so never add an article twice
+                    if ((allowed == null || allowed.contains(result.getArticleId())) && added.add(result.getArticleId())) {
+                        SearchHit hit = new SearchHit(result.getArticleId(), result.getScore());
+                        hit.setTitleOffsets(highlighter.find(result.getTitle()));
+                        hit.setSummaryOffsets(highlighter.find(result.getSummary()));
+                        hits.add(hit);
+                    }
+                }
+            }
+            checked = results.size();
+
+            if (hits.size() >= limit || results.size() < window || window >= MAX_WINDOW) {
+                return hits;
+            }
+            window = (int) Math.min((long) window * 4, MAX_WINDOW);
+        }
+    }
+
+    private Set<Long> allowedIds(List<InvertedIndex.Result> batch, LambdaQueryWrapper<Article> filter) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (InvertedIndex.Result result : batch) {
+            ids.add(result.getArticleId());
+        }
+        return new HashSet<>(articleMapper.selectIdsMatching(ids, filter));
+    }
+
+    /**
+     * Applied after the surrounding transaction commits, so a rolled-back edit never becomes searchable
+     */
+    @Override
+    public void index(Article article) {
+        if (article == null || article.getId() == null) {
+            return;
+        }
+        // Copied now; the entity may still change before commit
+        long id = article.getId();
+        String title = article.getTitle();
+        String summary = article.getSummary();
+        String content = article.getContent();
+        afterCommit(() -> {
+            if (building) {
+                touchedDuringBuild.add(id);
+            }
+            lock.writeLock().lock();
+            try {
+                index.add(id, title, summary, content);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (building) {
+                touchedDuringBuild.add(articleId);
+            }
+            lock.writeLock().lock();
+            try {
+                index.remove(articleId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable apply) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.search.Highlighter;
+import com.myvlog.blog.search.SearchHit;
+import com.myvlog.blog.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search backed by MySQL MATCH ... AGAINST on the ngram FULLTEXT index over title, summary
+ * and content, so CJK text is matched without a tokenizer of our own. Keywords shorter than
+ * the ngram token size produce no tokens and fall back to a LIKE scan. InnoDB maintains the
+ * index, so index/remove are no-ops.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog.search.engine", havingValue = "mysql", matchIfMissing = true)
+public class MysqlSearchServiceImpl implements SearchService {
+
+    private final ArticleMapper articleMapper;
+
+    // Must match the server's ngram_token_size
+    @Value("${blog.search.ngram-token-size:2}")
+    private int ngramTokenSize = 2;
+
+    @Override
+    public List<SearchHit> search(String keyword, int limit, LambdaQueryWrapper<Article> filter) {
+        List<SearchHit> hits = new ArrayList<>();
+        if (!StringUtils.hasText(keyword)) {
+            return hits;
+        }
+
+        String trimmed = keyword.trim();
+        List<Map<String, Object>> rows = trimmed.codePointCount(0, trimmed.length()) < ngramTokenSize
+                ? articleMapper.searchLike(trimmed, limit, filter)
+                : articleMapper.searchFullText(trimmed, limit, filter);
+
+        Highlighter highlighter = Highlighter.compile(keyword);
+        for (Map<String, Object> row : rows) {
+            SearchHit hit = new SearchHit(((Number) row.get("id")).longValue(), ((Number) row.get("relevance")).doubleValue());
+            hit.setTitleOffsets(highlighter.find((String) row.get("title")));
+            hit.setSummaryOffsets(highlighter.find((String) row.get("summary")));
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    @Override
+    public void index(Article article) {
+        // Maintained by InnoDB
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        // Maintained by InnoDB
+    }
+}
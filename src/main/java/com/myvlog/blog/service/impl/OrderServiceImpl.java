@@ -1,13 +1,12 @@
 package com.myvlog.blog.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.myvlog.blog.cache.UserCache;
 import com.myvlog.blog.entity.Order;
 import com.myvlog.blog.entity.Product;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.mapper.OrderMapper;
 import com.myvlog.blog.mapper.ProductMapper;
-import com.myvlog.blog.mapper.UserMapper;
 import com.myvlog.blog.service.OrderService;
 import com.myvlog.blog.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -25,14 +24,14 @@ import java.util.UUID;
 public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements OrderService {
 
     private final ProductMapper productMapper;
-    private final UserMapper userMapper;
+    private final UserCache userCache;
     private final UserService userService;
 
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
             String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-            return userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getUsername, username));
+            return userCache.get(username);
         }
         throw new RuntimeException("User not found");
     }
@@ -1,6 +1,7 @@
 package com.myvlog.blog.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.myvlog.blog.cache.UserCache;
 import com.myvlog.blog.entity.User;
 import com.myvlog.blog.mapper.UserMapper;
 import com.myvlog.blog.service.UserService;
@@ -16,6 +17,17 @@ import java.time.LocalDateTime;
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+
+    /**
+     * Every user write goes through here, so cached principals never outlive the row they were read from
+     */
+    @Override
+    public boolean updateById(User entity) {
+        boolean updated = super.updateById(entity);
+        userCache.invalidate(entity);
+        return updated;
+    }
 
     @Override
     @Transactional
@@ -0,0 +1,304 @@
+package com.myvlog.blog.stats;
+
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.enums.ArticleStatus;
+import com.myvlog.blog.enums.ArticleVisibility;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process hot ranking of listed articles (published and not private), ordered like the
+ * hot list: pinned first, then HotScore, then newest.
+ * <p>
+ * View, like and comment events update per-article counters in place; like, comment and
+ * track/remove events raised inside a transaction apply only once it commits. Every
+ * blog.hot.refresh-ms the top blog.hot.size are re-ranked from the previous top plus the
+ * articles touched since, so the ranking tracks activity within seconds without scanning
+ * every article; the time decay of the current top is re-evaluated on each refresh too.
+ * Every blog.hot.reload-ms (and at startup) counters are re-read from the database, which
+ * picks up anything written elsewhere (plus views still buffered in ViewCountBuffer) and
+ * re-ranks the whole set. Live scores stay in memory; articles.score has a single writer,
+ * ArticleScoreTask.
+ */
+@Component
+@Slf4j
+public class HotRanking {
+
+    private static final String SELECT_CHUNK = "SELECT id, title, view_count, like_count, comment_count, published_at, is_top "
+            + "FROM articles WHERE status = 'published' AND visibility <> 'private' AND id > ? ORDER BY id LIMIT ?";
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ViewCountBuffer viewCountBuffer;
+    private final int size;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile List<Entry> ranked = List.of();
+    private volatile boolean ready;
+
+    public HotRanking(JdbcTemplate jdbcTemplate,
+                      ViewCountBuffer viewCountBuffer,
+                      MeterRegistry meterRegistry,
+                      @Value("${blog.hot.size:500}") int size) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.viewCountBuffer = viewCountBuffer;
+        this.size = Math.max(1, size);
+        Gauge.builder("article.hot.tracked", entries, Map::size)
+                .description("Articles tracked by the in-memory hot ranking")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of listed articles, i.e. the total of an unfiltered public hot list
+     */
+    public int total() {
+        return entries.size();
+    }
+
+    public void onView(Long articleId) {
+        Entry entry = entries.get(articleId);
+        if (entry != null) {
+            entry.views.incrementAndGet();
+            touch(articleId);
+        }
+    }
+
+    public void onLike(Long articleId, int delta) {
+        afterCommit(() -> {
+            Entry entry = entries.get(articleId);
+            if (entry != null) {
+                entry.likes.addAndGet(delta);
+                touch(articleId);
+            }
+        });
+    }
+
+    public void onComment(Long articleId, int delta) {
+        afterCommit(() -> {
+            Entry entry = entries.get(articleId);
+            if (entry != null) {
+                entry.comments.addAndGet(delta);
+                touch(articleId);
+            }
+        });
+    }
+
+    /**
+     * Start, update or stop tracking an article after it was written, depending on whether it is listed
+     */
+    public void track(Article article) {
+        if (article.getId() == null) {
+            return;
+        }
+        Long articleId = article.getId();
+        if (article.getStatus() != ArticleStatus.PUBLISHED || article.getVisibility() == ArticleVisibility.PRIVATE) {
+            remove(articleId);
+            return;
+        }
+        long views = value(article.getViewCount());
+        long likes = value(article.getLikeCount());
+        long comments = value(article.getCommentCount());
+        String title = article.getTitle();
+        boolean top = Boolean.TRUE.equals(article.getIsTop());
+        LocalDateTime publishedAt = article.getPublishedAt();
+        afterCommit(() -> {
+            Entry entry = entries.computeIfAbsent(articleId, id -> new Entry(id,
+                    views + viewCountBuffer.pending(id), likes, comments));
+            entry.title = title;
+            entry.top = top;
+            entry.publishedAt = publishedAt;
+            touch(articleId);
+        });
+    }
+
+    public void remove(Long articleId) {
+        afterCommit(() -> {
+            if (entries.remove(articleId) != null) {
+                touched.add(articleId);
+            }
+        });
+    }
+
+    /**
+     * Article ids for one page of the hot list, or null when the page lies beyond the ranked top
+     * (or the ranking is not loaded yet) and must come from the database
+     */
+    public List<Long> page(long offset, long limit) {
+        List<Entry> current = ranked;
+        if (!ready || (offset + limit > current.size() && current.size() < entries.size())) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long i = offset; i < Math.min(offset + limit, current.size()); i++) {
+            ids.add(current.get((int) i).id);
+        }
+        return ids;
+    }
+
+    /**
+     * The first n ranked articles with their live score
+     */
+    public List<Ranked> top(int n) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Entry> current = ranked;
+        List<Ranked> result = new ArrayList<>(Math.min(n, current.size()));
+        for (int i = 0; i < Math.min(n, current.size()); i++) {
+            Entry entry = current.get(i);
+            result.add(new Ranked(entry.id, entry.title, entry.views.get(), entry.score(now)));
+        }
+        return result;
+    }
+
+    /**
+     * Re-rank the previous top together with everything touched since the last refresh
+     */
+    @Scheduled(initialDelayString = "${blog.hot.refresh-ms:5000}", fixedDelayString = "${blog.hot.refresh-ms:5000}")
+    public void refresh() {
+        if (touched.isEmpty() && ranked.isEmpty()) {
+            return;
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (Entry entry : ranked) {
+            candidates.add(entry.id);
+        }
+        for (Long id : touched) {
+            touched.remove(id);
+            candidates.add(id);
+        }
+        List<Entry> pool = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                pool.add(entry);
+            }
+        }
+        ranked = rank(pool);
+    }
+
+    /**
+     * Reload counters from the database and re-rank every listed article
+     */
+    @Scheduled(fixedDelayString = "${blog.hot.reload-ms:3600000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        Map<Long, Entry> loaded = new HashMap<>();
+        long lastId = 0;
+        while (true) {
+            List<Entry> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> {
+                long id = rs.getLong("id");
+                Entry entry = new Entry(id, rs.getLong("view_count") + viewCountBuffer.pending(id),
+                        rs.getLong("like_count"), rs.getLong("comment_count"));
+                entry.title = rs.getString("title");
+                entry.top = rs.getBoolean("is_top");
+                Timestamp publishedAt = rs.getTimestamp("published_at");
+                entry.publishedAt = publishedAt == null ? null : publishedAt.toLocalDateTime();
+                return entry;
+            }, lastId, LOAD_BATCH_SIZE);
+            for (Entry entry : chunk) {
+                loaded.put(entry.id, entry);
+            }
+            if (chunk.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).id;
+        }
+
+        entries.keySet().retainAll(loaded.keySet());
+        entries.putAll(loaded);
+        ranked = rank(new ArrayList<>(entries.values()));
+        ready = true;
+        log.info("Hot ranking loaded {} articles in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Run once the current transaction commits (immediately outside one), so a rollback never reaches the ranking
+     */
+    private static void afterCommit(Runnable apply) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void touch(Long articleId) {
+        touched.add(articleId);
+    }
+
+    private List<Entry> rank(List<Entry> pool) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Double> scores = new HashMap<>(pool.size() * 2);
+        for (Entry entry : pool) {
+            scores.put(entry.id, entry.score(now));
+        }
+        pool.sort(Comparator.<Entry, Boolean>comparing(entry -> entry.top).reversed()
+                .thenComparing(entry -> scores.get(entry.id), Comparator.reverseOrder())
+                .thenComparing(entry -> entry.publishedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return List.copyOf(pool.subList(0, Math.min(size, pool.size())));
+    }
+
+    private static long value(Integer count) {
+        return count == null ? 0 : count;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Ranked {
+        private final Long id;
+        private final String title;
+        private final long views;
+        private final double score;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final AtomicLong views;
+        private final AtomicLong likes;
+        private final AtomicLong comments;
+        private volatile String title;
+        private volatile boolean top;
+        private volatile LocalDateTime publishedAt;
+
+        Entry(long id, long views, long likes, long comments) {
+            this.id = id;
+            this.views = new AtomicLong(views);
+            this.likes = new AtomicLong(likes);
+            this.comments = new AtomicLong(comments);
+        }
+
+        double score(LocalDateTime now) {
+            return HotScore.compute(views.get(), likes.get(), comments.get(), publishedAt, now);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.myvlog.blog.stats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Hot-ranking formula shared by everything that computes articles.score.
+ * <p>
+ * Score = (W + I) / (T + 2)^G, where
+ * W (Weighted Interactions) = View*1 + Like*2 + Comment*5,
+ * T (Time) = hours since published and
+ * G (Gravity) = 1.5 (standard news gravity).
+ */
+public final class HotScore {
+
+    public static final double GRAVITY = 1.5;
+
+    private HotScore() {
+    }
+
+    public static double weightedInteractions(long views, long likes, long comments) {
+        return views * 1.0 + likes * 2.0 + comments * 5.0;
+    }
+
+    public static double compute(long views, long likes, long comments, LocalDateTime publishedAt, LocalDateTime now) {
+        long hoursSincePublished = 0;
+        if (publishedAt != null) {
+            hoursSincePublished = Math.max(0, Duration.between(publishedAt, now).toHours());
+        }
+        return weightedInteractions(views, likes, comments) / Math.pow(hoursSincePublished + 2, GRAVITY);
+    }
+}
@@ -0,0 +1,101 @@
+package com.myvlog.blog.stats;
+
+import com.myvlog.blog.dto.DashboardStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialized site-wide totals for the dashboard.
+ * Writes adjust the totals after their transaction commits and every view bumps totalViews,
+ * so reads are a handful of atomic loads. An exact recompute (row counts, SUM(view_count)
+ * plus views still buffered in ViewCountBuffer) runs at startup and every
+ * blog.dashboard.recompute-ms to correct anything the events missed, such as rows written
+ * outside the services; asOf in the snapshot is the time of that last recompute.
+ */
+@Component
+@Slf4j
+public class SiteStats {
+
+    public enum Kind {
+        ARTICLES("articles"), PROJECTS("projects"), USERS("users"), CATEGORIES("categories");
+
+        private final String table;
+
+        Kind(String table) {
+            this.table = table;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ViewCountBuffer viewCountBuffer;
+
+    private final Map<Kind, AtomicLong> counts = new EnumMap<>(Kind.class);
+    private final AtomicLong totalViews = new AtomicLong();
+    private volatile LocalDateTime asOf;
+
+    public SiteStats(JdbcTemplate jdbcTemplate, ViewCountBuffer viewCountBuffer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.viewCountBuffer = viewCountBuffer;
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, new AtomicLong());
+        }
+    }
+
+    public DashboardStats snapshot() {
+        if (asOf == null) {
+            recompute();
+        }
+        return DashboardStats.builder()
+                .articleCount(counts.get(Kind.ARTICLES).get())
+                .projectCount(counts.get(Kind.PROJECTS).get())
+                .userCount(counts.get(Kind.USERS).get())
+                .categoryCount(counts.get(Kind.CATEGORIES).get())
+                .totalViews(totalViews.get())
+                .asOf(asOf)
+                .build();
+    }
+
+    /**
+     * Adjust a total once the current transaction commits (immediately outside one)
+     */
+    public void adjust(Kind kind, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.get(kind).addAndGet(delta);
+                }
+            });
+        } else {
+            counts.get(kind).addAndGet(delta);
+        }
+    }
+
+    public void onView() {
+        totalViews.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${blog.dashboard.recompute-ms:600000}")
+    public synchronized void recompute() {
+        try {
+            for (Kind kind : Kind.values()) {
+                Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + kind.table, Long.class);
+                counts.get(kind).set(count == null ? 0 : count);
+            }
+            Long views = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(view_count), 0) FROM articles", Long.class);
+            totalViews.set((views == null ? 0 : views) + viewCountBuffer.pendingTotal());
+            asOf = LocalDateTime.now();
+        } catch (Exception e) {
+            log.error("Failed to recompute dashboard stats", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.myvlog.blog.stats;
+
+import com.myvlog.blog.security.AuthUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 站点流量采集过滤器
+ * 前端是单页应用，一次页面浏览会触发多个接口请求，这里只把页面主体内容的 GET 请求
+ * (blog.traffic.pages，排除 blog.traffic.exclude) 成功返回时计为一次 PV；
+ * 访客标识为登录用户 ID，匿名访客为 IP + User-Agent。
+ * 只写入内存计数 (TrafficStats)，不在请求线程上访问数据库
+ */
+@Component
+public class TrafficFilter extends OncePerRequestFilter {
+
+    private final TrafficStats trafficStats;
+    private final List<String> pages;
+    private final List<String> excluded;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public TrafficFilter(TrafficStats trafficStats,
+                         @Value("${blog.traffic.pages:/api/articles,/api/articles/*,/api/articles/slug/*,/api/search}") List<String> pages,
+                         @Value("${blog.traffic.exclude:/api/articles/me,/api/articles/admin}") List<String> excluded) {
+        this.trafficStats = trafficStats;
+        this.pages = pages;
+        this.excluded = excluded;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+
+        if (isPageView(request, response)) {
+            trafficStats.onPageView(visitor(request));
+        }
+    }
+
+    private boolean isPageView(HttpServletRequest request, HttpServletResponse response) {
+        if (!"GET".equals(request.getMethod()) || response.getStatus() >= 400) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return pages.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                && excluded.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static String visitor(HttpServletRequest request) {
+        AuthUser user = AuthUser.current();
+        if (user != null) {
+            return "user:" + user.getId();
+        }
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getRemoteAddr();
+        } else {
+            // 多级代理时取最前面的客户端地址
+            ip = ip.split(",")[0].trim();
+        }
+        return "guest:" + ip + "|" + request.getHeader("User-Agent");
+    }
+}
@@ -0,0 +1,245 @@
+package com.myvlog.blog.stats;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.google.common.hash.Hashing;
+import com.myvlog.blog.dto.TrafficSeries;
+import com.myvlog.blog.entity.Statistics;
+import com.myvlog.blog.mapper.StatisticsMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory site traffic aggregation feeding the statistics table.
+ * Page views (counted by TrafficFilter), article views and new comments go into striped
+ * LongAdders per day, unique visitors into a HyperLogLog per day, and page views also into a
+ * 24-hour ring of per-minute slots. Nothing touches the database on the request path:
+ * every blog.traffic.flush-ms one multi-row upsert adds the counts accumulated since the
+ * previous flush and raises uv to the sketch's estimate. After a restart the new sketch starts
+ * empty, so that day's uv is kept at the larger of the stored and in-memory estimates.
+ */
+@Component
+@Slf4j
+public class TrafficStats {
+
+    static final int MINUTES = 24 * 60;
+
+    private static final String UPSERT_PREFIX = "INSERT INTO statistics (date, pv, uv, article_views, comment_count) VALUES ";
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE pv = pv + VALUES(pv), uv = GREATEST(uv, VALUES(uv)), "
+            + "article_views = article_views + VALUES(article_views), comment_count = comment_count + VALUES(comment_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatisticsMapper statisticsMapper;
+    private final int precision;
+
+    private final ConcurrentMap<LocalDate, Day> days = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Minute> minutes = new AtomicReferenceArray<>(MINUTES);
+
+    public TrafficStats(JdbcTemplate jdbcTemplate,
+                        StatisticsMapper statisticsMapper,
+                        @Value("${blog.traffic.uv-precision:14}") int precision) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statisticsMapper = statisticsMapper;
+        this.precision = precision;
+    }
+
+    public void onPageView(String visitor) {
+        onPageView(visitor, LocalDateTime.now());
+    }
+
+    void onPageView(String visitor, LocalDateTime now) {
+        Day day = day(now.toLocalDate());
+        day.pv.increment();
+        day.uv.add(Hashing.murmur3_128().hashString(visitor, StandardCharsets.UTF_8).asLong());
+        minute(minuteKey(now)).pv.increment();
+    }
+
+    public void onArticleView() {
+        day(LocalDate.now()).articleViews.increment();
+    }
+
+    public void onComment() {
+        day(LocalDate.now()).comments.increment();
+    }
+
+    /**
+     * Stored daily rows for the last {@code dayCount} days with unflushed traffic added,
+     * plus the per-minute page views of the last 24 hours
+     */
+    public TrafficSeries series(int dayCount) {
+        return series(dayCount, LocalDateTime.now());
+    }
+
+    TrafficSeries series(int dayCount, LocalDateTime now) {
+        LocalDate since = now.toLocalDate().minusDays(Math.max(1, dayCount) - 1L);
+        Map<LocalDate, Statistics> daily = new TreeMap<>();
+        for (Statistics row : statisticsMapper.selectList(new LambdaQueryWrapper<Statistics>().ge(Statistics::getDate, since))) {
+            daily.put(row.getDate(), row);
+        }
+        for (Day day : days.values()) {
+            if (day.date.isBefore(since)) {
+                continue;
+            }
+            Statistics row = daily.computeIfAbsent(day.date, TrafficStats::emptyRow);
+            synchronized (this) {
+                row.setPv(row.getPv() + (int) (day.pv.sum() - day.flushedPv));
+                row.setUv((int) Math.max(row.getUv(), day.uv.estimate()));
+                row.setArticleViews(row.getArticleViews() + (int) (day.articleViews.sum() - day.flushedArticleViews));
+                row.setCommentCount(row.getCommentCount() + (int) (day.comments.sum() - day.flushedComments));
+            }
+        }
+
+        long last = minuteKey(now);
+        List<TrafficSeries.MinutePoint> points = new ArrayList<>(MINUTES);
+        for (long key = last - MINUTES + 1; key <= last; key++) {
+            Minute slot = minutes.get(slotIndex(key));
+            long pv = slot != null && slot.key == key ? slot.pv.sum() : 0;
+            points.add(new TrafficSeries.MinutePoint(LocalDateTime.ofEpochSecond(key * 60, 0, ZoneOffset.UTC), pv));
+        }
+        return new TrafficSeries(new ArrayList<>(daily.values()), points);
+    }
+
+    /**
+     * Write everything accumulated since the last flush with a single upsert
+     */
+    @Scheduled(fixedDelayString = "${blog.traffic.flush-ms:60000}")
+    public synchronized void flush() {
+        List<Day> pending = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (Day day : days.values()) {
+            // Read each counter once so what is written is exactly what gets marked flushed
+            day.pendingPv = day.pv.sum();
+            day.pendingUv = day.uv.estimate();
+            day.pendingArticleViews = day.articleViews.sum();
+            day.pendingComments = day.comments.sum();
+            if (day.pendingPv == day.flushedPv && day.pendingUv == day.flushedUv
+                    && day.pendingArticleViews == day.flushedArticleViews && day.pendingComments == day.flushedComments) {
+                continue;
+            }
+            sql.append(pending.isEmpty() ? "" : ",").append("(?, ?, ?, ?, ?)");
+            args.add(day.date);
+            args.add(day.pendingPv - day.flushedPv);
+            args.add(day.pendingUv);
+            args.add(day.pendingArticleViews - day.flushedArticleViews);
+            args.add(day.pendingComments - day.flushedComments);
+            pending.add(day);
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                jdbcTemplate.update(sql.append(UPSERT_SUFFIX).toString(), args.toArray());
+            } catch (Exception e) {
+                // Counters are cumulative, the next flush retries the same deltas
+                log.error("Failed to flush traffic statistics for {} days", pending.size(), e);
+                return;
+            }
+            for (Day day : pending) {
+                day.flushedPv = day.pendingPv;
+                day.flushedUv = day.pendingUv;
+                day.flushedArticleViews = day.pendingArticleViews;
+                day.flushedComments = day.pendingComments;
+            }
+        }
+
+        // Earlier days are complete once written; late events simply start a fresh entry
+        LocalDate today = LocalDate.now();
+        days.values().removeIf(day -> day.date.isBefore(today) && day.isFlushed());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Day day(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new Day(d, precision));
+    }
+
+    private Minute minute(long key) {
+        int index = slotIndex(key);
+        Minute current = minutes.get(index);
+        if (current != null && current.key == key) {
+            return current;
+        }
+        Minute fresh = new Minute(key);
+        if (current != null && current.key > key) {
+            // A straggler from a minute that has already left the window
+            return fresh;
+        }
+        // Losing the race means another thread just installed this minute's slot
+        return minutes.compareAndSet(index, current, fresh) ? fresh : minutes.get(index);
+    }
+
+    private static long minuteKey(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.MINUTES).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static int slotIndex(long key) {
+        return (int) Math.floorMod(key, (long) MINUTES);
+    }
+
+    private static Statistics emptyRow(LocalDate date) {
+        Statistics row = new Statistics();
+        row.setDate(date);
+        row.setPv(0);
+        row.setUv(0);
+        row.setArticleViews(0);
+        row.setCommentCount(0);
+        return row;
+    }
+
+    private static final class Day {
+        final LocalDate date;
+        final LongAdder pv = new LongAdder();
+        final HyperLogLog uv;
+        final LongAdder articleViews = new LongAdder();
+        final LongAdder comments = new LongAdder();
+
+        // Guarded by the TrafficStats monitor
+        long flushedPv;
+        long flushedUv;
+        long flushedArticleViews;
+        long flushedComments;
+        long pendingPv;
+        long pendingUv;
+        long pendingArticleViews;
+        long pendingComments;
+
+        Day(LocalDate date, int precision) {
+            this.date = date;
+            this.uv = new HyperLogLog(precision);
+        }
+
+        boolean isFlushed() {
+            return pv.sum() == flushedPv && articleViews.sum() == flushedArticleViews
+                    && comments.sum() == flushedComments && uv.estimate() == flushedUv;
+        }
+    }
+
+    private static final class Minute {
+        final long key;
+        final LongAdder pv = new LongAdder();
+
+        Minute(long key) {
+            this.key = key;
+        }
+    }
+}
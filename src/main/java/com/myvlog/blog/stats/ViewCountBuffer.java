@@ -0,0 +1,134 @@
+package com.myvlog.blog.stats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for article view counts.
+ * Reads only bump a LongAdder per article id; aggregated deltas are written back
+ * in one JDBC batch every few seconds and once more on shutdown, so a hot article
+ * no longer takes a row lock on every read.
+ * Metrics: article.views.pending (buffered views) and article.views.flush (flush latency).
+ */
+@Component
+@Slf4j
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE articles SET view_count = view_count + ? WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Ids that had nothing to flush last time; evicted if still idle on the next flush
+    private final Set<Long> idle = ConcurrentHashMap.newKeySet();
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer flushTimer;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTimer = Timer.builder("article.views.flush")
+                .description("Time spent writing buffered view counts")
+                .register(meterRegistry);
+        Gauge.builder("article.views.pending", this, ViewCountBuffer::pendingTotal)
+                .description("Views recorded but not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record one view of an article
+     */
+    public void increment(Long articleId) {
+        if (articleId != null) {
+            // Lock-free for an article already in the map; only the first view takes the bin lock
+            LongAdder adder = pending.get(articleId);
+            if (adder == null) {
+                adder = pending.computeIfAbsent(articleId, id -> new LongAdder());
+            }
+            adder.increment();
+            if (pending.get(articleId) != adder) {
+                // Evicted by flush between lookup and increment: move what flush did not carry over
+                long moved = adder.sumThenReset();
+                if (moved > 0) {
+                    addBack(articleId, moved);
+                }
+            }
+        }
+    }
+
+    /**
+     * Views recorded for an article since the last flush, used to keep responses current
+     */
+    public long pending(Long articleId) {
+        LongAdder adder = articleId == null ? null : pending.get(articleId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long pendingTotal() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Scheduled(initialDelayString = "${blog.views.flush-interval-ms:5000}", fixedDelayString = "${blog.views.flush-interval-ms:5000}")
+    public void flush() {
+        // Sorted by id so concurrent flushes (e.g. shutdown racing the scheduler) lock rows in the same order
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long id = entry.getKey();
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(id, delta);
+                idle.remove(id);
+            } else if (!idle.add(id)) {
+                // Idle through two flushes, drop it to keep the map bounded. A view that looked the
+                // adder up just before it was removed still lands in it; whatever increment() does
+                // not move back itself is carried over here (sumThenReset takes each view once).
+                idle.remove(id);
+                if (pending.remove(id, adder)) {
+                    long residual = adder.sumThenReset();
+                    if (residual > 0) {
+                        addBack(id, residual);
+                    }
+                }
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(new Object[]{delta, id}));
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            deltas.forEach(this::addBack);
+            log.error("Failed to flush view counts for {} articles", deltas.size(), e);
+        }
+    }
+
+    private void addBack(Long articleId, long delta) {
+        pending.computeIfAbsent(articleId, id -> new LongAdder()).add(delta);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
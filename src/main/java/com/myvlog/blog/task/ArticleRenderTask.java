@@ -0,0 +1,78 @@
+package com.myvlog.blog.task;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.service.ArticleService;
+import com.myvlog.blog.utils.MarkdownUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Re-renders articles whose stored HTML was produced by an older MarkdownUtils.RENDER_VERSION
+ * (or never rendered at all). Runs shortly after startup and then hourly, walking the table in
+ * id order so each chunk is a cheap range scan.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ArticleRenderTask {
+
+    private final ArticleService articleService;
+
+    @Value("${blog.render.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelay = 60000, fixedDelay = 3600000)
+    public void rerenderStaleArticles() {
+        long lastId = 0;
+        int rendered = 0;
+
+        while (true) {
+            List<Article> chunk = articleService.list(new LambdaQueryWrapper<Article>()
+                    .select(Article::getId, Article::getContent)
+                    .gt(Article::getId, lastId)
+                    .and(w -> w.isNull(Article::getRenderVersion)
+                            .or().ne(Article::getRenderVersion, MarkdownUtils.RENDER_VERSION))
+                    .orderByAsc(Article::getId)
+                    .last("LIMIT " + batchSize));
+
+            for (Article article : chunk) {
+                try {
+                    if (rerender(article)) {
+                        rendered++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to re-render article: {}", article.getId(), e);
+                }
+            }
+
+            if (chunk.size() < batchSize) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        if (rendered > 0) {
+            log.info("Re-rendered {} articles to render version {}.", rendered, MarkdownUtils.RENDER_VERSION);
+        }
+    }
+
+    private boolean rerender(Article article) {
+        MarkdownUtils.RenderResult result = MarkdownUtils.render(article.getContent());
+
+        // Only touch the render columns, and skip rows an edit has already brought up to date
+        return articleService.update(new LambdaUpdateWrapper<Article>()
+                .set(Article::getHtmlContent, result.getHtml())
+                .set(Article::getTocJson, MarkdownUtils.toTocJson(result.getToc()))
+                .set(Article::getRenderVersion, MarkdownUtils.RENDER_VERSION)
+                .eq(Article::getId, article.getId())
+                .and(w -> w.isNull(Article::getRenderVersion)
+                        .or().ne(Article::getRenderVersion, MarkdownUtils.RENDER_VERSION)));
+    }
+}
@@ -1,69 +1,174 @@
 package com.myvlog.blog.task;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.myvlog.blog.entity.Article;
-import com.myvlog.blog.enums.ArticleStatus;
-import com.myvlog.blog.service.ArticleService;
-import lombok.RequiredArgsConstructor;
+import com.myvlog.blog.stats.HotScore;
+import com.myvlog.blog.stats.ViewCountBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Recomputes articles.score (see HotScore) for published articles every hour. This task is
+ * the only writer of the column; HotRanking keeps its live scores in memory.
+ * <p>
+ * Articles are streamed in id-keyset chunks of blog.score.batch-size, reading only the
+ * columns the formula needs, so memory stays at one chunk regardless of table size. Views
+ * still buffered in ViewCountBuffer are added to view_count, and only rows whose score moved by more than
+ * blog.score.min-change (relative) are written, with a JDBC batch that touches the score
+ * column alone.
+ * <p>
+ * Metrics: article.score.run (duration), article.score.rows{result=updated|skipped} and
+ * article.score.allocated.bytes (heap allocated by the task thread per run).
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ArticleScoreTask {
 
-    private final ArticleService articleService;
+    private static final String SELECT_CHUNK = "SELECT id, view_count, like_count, comment_count, published_at, score "
+            + "FROM articles WHERE status = 'published' AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_SCORE = "UPDATE articles SET score = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ViewCountBuffer viewCountBuffer;
+    private final int batchSize;
+    private final double minChange;
+
+    private final Timer runTimer;
+    private final Counter updatedRows;
+    private final Counter skippedRows;
+    private final DistributionSummary allocatedBytes;
+
+    public ArticleScoreTask(JdbcTemplate jdbcTemplate,
+                            ViewCountBuffer viewCountBuffer,
+                            MeterRegistry meterRegistry,
+                            @Value("${blog.score.batch-size:1000}") int batchSize,
+                            @Value("${blog.score.min-change:0.01}") double minChange) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.viewCountBuffer = viewCountBuffer;
+        this.batchSize = Math.max(1, batchSize);
+        this.minChange = minChange;
+
+        this.runTimer = Timer.builder("article.score.run")
+                .description("Duration of a full score recomputation")
+                .register(meterRegistry);
+        this.updatedRows = Counter.builder("article.score.rows")
+                .tag("result", "updated")
+                .description("Articles whose score was written")
+                .register(meterRegistry);
+        this.skippedRows = Counter.builder("article.score.rows")
+                .tag("result", "skipped")
+                .description("Articles whose score did not change enough to write")
+                .register(meterRegistry);
+        this.allocatedBytes = DistributionSummary.builder("article.score.allocated.bytes")
+                .baseUnit("bytes")
+                .description("Heap allocated by the task thread during one run")
+                .register(meterRegistry);
+    }
 
     // Run every hour
     @Scheduled(fixedRate = 3600000)
     public void calculateArticleScores() {
         log.info("Starting article score calculation...");
-        
-        // Fetch all published articles
-        // In production with large data, this should be paginated or processed in batches
-        List<Article> articles = articleService.list(new LambdaQueryWrapper<Article>()
-                .eq(Article::getStatus, ArticleStatus.PUBLISHED));
-        
-        for (Article article : articles) {
-            updateArticleScore(article);
+        long allocatedBefore = threadAllocatedBytes();
+        long start = System.nanoTime();
+
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        int processed = 0;
+        int updated = 0;
+
+        while (true) {
+            List<ScoreRow> chunk = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> {
+                Timestamp publishedAt = rs.getTimestamp("published_at");
+                return new ScoreRow(
+                        rs.getLong("id"),
+                        rs.getLong("view_count"),
+                        rs.getLong("like_count"),
+                        rs.getLong("comment_count"),
+                        publishedAt == null ? null : publishedAt.toLocalDateTime(),
+                        rs.getDouble("score"));
+            }, lastId, batchSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> changes = new ArrayList<>();
+            for (ScoreRow row : chunk) {
+                long views = row.views + viewCountBuffer.pending(row.id);
+                double score = HotScore.compute(views, row.likes, row.comments, row.publishedAt, now);
+                if (changed(row.score, score)) {
+                    changes.add(new Object[]{score, row.id});
+                }
+            }
+            if (!changes.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SCORE, changes);
+            }
+
+            processed += chunk.size();
+            updated += changes.size();
+            if (chunk.size() < batchSize) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).id;
         }
-        
-        // Batch update is better, but MP default batch update can be slow if not configured correctly.
-        // For simplicity, we update one by one or use updateBatchById if ServiceImpl provides it.
-        if (!articles.isEmpty()) {
-            articleService.updateBatchById(articles);
+
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        updatedRows.increment(updated);
+        skippedRows.increment(processed - updated);
+        long allocatedAfter = threadAllocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            allocatedBytes.record(allocatedAfter - allocatedBefore);
         }
-        
-        log.info("Article score calculation completed. Processed {} articles.", articles.size());
+
+        log.info("Article score calculation completed. Processed {} articles, updated {}.", processed, updated);
     }
-    
-    private void updateArticleScore(Article article) {
-        // Formula: Score = (W + I) / (T + 1)^G
-        // W (Weighted Interactions) = View*1 + Like*2 + Comment*5
-        // T (Time) = Hours since published
-        // G (Gravity) = 1.5 (Standard news gravity)
-        
-        int views = article.getViewCount() == null ? 0 : article.getViewCount();
-        int likes = article.getLikeCount() == null ? 0 : article.getLikeCount();
-        int comments = article.getCommentCount() == null ? 0 : article.getCommentCount();
-        
-        double weightedInteractions = views * 1.0 + likes * 2.0 + comments * 5.0;
-        
-        long hoursSincePublished = 0;
-        if (article.getPublishedAt() != null) {
-            hoursSincePublished = Duration.between(article.getPublishedAt(), LocalDateTime.now()).toHours();
-            if (hoursSincePublished < 0) hoursSincePublished = 0;
+
+    /**
+     * Whether the new score differs from the stored one by more than the relative threshold
+     */
+    boolean changed(double stored, double computed) {
+        double diff = Math.abs(computed - stored);
+        if (diff == 0) {
+            return false;
+        }
+        return diff > minChange * Math.max(Math.abs(stored), Math.abs(computed));
+    }
+
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static final class ScoreRow {
+        private final long id;
+        private final long views;
+        private final long likes;
+        private final long comments;
+        private final LocalDateTime publishedAt;
+        private final double score;
+
+        ScoreRow(long id, long views, long likes, long comments, LocalDateTime publishedAt, double score) {
+            this.id = id;
+            this.views = views;
+            this.likes = likes;
+            this.comments = comments;
+            this.publishedAt = publishedAt;
+            this.score = score;
         }
-        
-        double gravity = 1.5;
-        double score = weightedInteractions / Math.pow(hoursSincePublished + 2, gravity);
-        
-        article.setScore(score);
     }
 }
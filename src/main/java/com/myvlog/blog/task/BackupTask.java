@@ -13,12 +13,12 @@ public class BackupTask {
 
     private final BackupService backupService;
 
-    // Daily at 2:00 AM
+    // Daily at 2:00 AM; a full base weekly, changes only in between
     @Scheduled(cron = "0 0 2 * * ?")
     public void scheduleBackup() {
         log.info("Executing scheduled backup task...");
         try {
-            backupService.performBackup();
+            backupService.performScheduledBackup();
         } catch (Exception e) {
             log.error("Scheduled backup failed", e);
         }
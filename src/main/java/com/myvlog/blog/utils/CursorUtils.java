@@ -0,0 +1,93 @@
+package com.myvlog.blog.utils;
+
+import com.myvlog.blog.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions as opaque URL-safe cursors.
+ * A position is the (created_at, id) of the last row on a page; id breaks ties between rows
+ * created in the same instant. Article lists, ordered pinned-first then newest, use an
+ * (is_top, published_at, id) position instead, where published_at may be null.
+ */
+public final class CursorUtils {
+
+    private CursorUtils() {
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Position {
+        private final LocalDateTime createdAt;
+        private final Long id;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ArticlePosition {
+        private final boolean top;
+        private final LocalDateTime publishedAt;
+        private final Long id;
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return toToken(createdAt + "," + id);
+    }
+
+    public static String encodeArticle(boolean top, LocalDateTime publishedAt, Long id) {
+        return toToken((top ? "1" : "0") + "," + (publishedAt == null ? "" : publishedAt) + "," + id);
+    }
+
+    /**
+     * Decode a cursor; returns null for a missing cursor (first page)
+     *
+     * @throws BusinessException if the cursor is malformed
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = fromToken(cursor);
+            int comma = raw.lastIndexOf(',');
+            return new Position(LocalDateTime.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Decode an article list cursor; returns null for a missing cursor (first page)
+     *
+     * @throws BusinessException if the cursor is malformed
+     */
+    public static ArticlePosition decodeArticle(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = fromToken(cursor).split(",", -1);
+            if (parts.length != 3 || !("0".equals(parts[0]) || "1".equals(parts[0]))) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return new ArticlePosition("1".equals(parts[0]),
+                    parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    private static String toToken(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromToken(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -1,28 +1,95 @@
 package com.myvlog.blog.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myvlog.blog.dto.ArticleResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.commonmark.Extension;
 import org.commonmark.ext.gfm.tables.TablesExtension;
 import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Code;
+import org.commonmark.node.FencedCodeBlock;
 import org.commonmark.node.Heading;
+import org.commonmark.node.HtmlBlock;
+import org.commonmark.node.HtmlInline;
+import org.commonmark.node.Image;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.Link;
 import org.commonmark.node.Node;
 import org.commonmark.node.Text;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.AttributeProvider;
-import org.commonmark.renderer.html.AttributeProviderContext;
-import org.commonmark.renderer.html.AttributeProviderFactory;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class MarkdownUtils {
 
+    /**
+     * Version of the rendering pipeline persisted with each article.
+     * Bump whenever extensions, attribute providers or TOC rules change so
+     * stored HTML is re-rendered by ArticleRenderTask.
+     */
+    public static final int RENDER_VERSION = 1;
+
+    private static final ObjectMapper TOC_MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<ArticleResponse.TocItem>> TOC_TYPE = new TypeReference<>() {};
+
+    private static final List<Extension> EXTENSIONS = List.of(TablesExtension.create());
+
+    // Parser and HtmlRenderer are immutable and thread-safe, build them once.
+    // The attribute provider factory is invoked per render, so heading counters never leak between documents.
+    private static final Parser PARSER = Parser.builder()
+            .extensions(EXTENSIONS)
+            .build();
+
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder()
+            .extensions(EXTENSIONS)
+            .attributeProviderFactory(context -> new TOCAttributeProvider())
+            .build();
+
+    // Chinese characters or English words (including numbers)
+    private static final Pattern WORD_PATTERN = Pattern.compile("([\\u4e00-\\u9fa5])|([a-zA-Z0-9]+)");
+
+    // Bare http/https links inside text
+    private static final Pattern URL_PATTERN = Pattern.compile("(https?://[^\\s\\)\\]\"']+)");
+
+    // Sentence punctuation right after a bare URL ("see https://example.org/page.") is not part of it
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.,;:!?。，；：！？、]+$");
+
+    // href/src URLs inside raw HTML blocks and inline tags
+    private static final Pattern HTML_LINK_PATTERN = Pattern.compile("(?i)\\b(?:href|src)\\s*=\\s*[\"']?(https?://[^\\s\"'<>]+)");
+
+    /**
+     * Parse once and produce HTML, TOC, word count and outbound links from the same AST
+     *
+     * @param markdown markdown content
+     * @return render result, never null
+     */
+    public static RenderResult render(String markdown) {
+        if (!StringUtils.hasText(markdown)) {
+            return new RenderResult("", new ArrayList<>(), 0, new ArrayList<>());
+        }
+
+        Node document = PARSER.parse(markdown);
+        DocumentVisitor visitor = new DocumentVisitor();
+        document.accept(visitor);
+
+        return new RenderResult(RENDERER.render(document), visitor.toc, visitor.wordCount, new ArrayList<>(visitor.links));
+    }
+
     /**
      * Convert Markdown to HTML
      *
@@ -33,14 +100,7 @@ public class MarkdownUtils {
         if (!StringUtils.hasText(markdown)) {
             return "";
         }
-
-        Node document = parse(markdown);
-        HtmlRenderer renderer = HtmlRenderer.builder()
-                .extensions(Arrays.asList(TablesExtension.create()))
-                .attributeProviderFactory(context -> new TOCAttributeProvider())
-                .build();
-
-        return renderer.render(document);
+        return RENDERER.render(PARSER.parse(markdown));
     }
 
     /**
@@ -51,35 +111,49 @@ public class MarkdownUtils {
             return new ArrayList<>();
         }
 
-        Node document = parse(markdown);
-        List<ArticleResponse.TocItem> toc = new ArrayList<>();
-        
-        document.accept(new AbstractVisitor() {
-            private int counter = 0;
-            @Override
-            public void visit(Heading heading) {
-                String text = extractHeadingText(heading);
-                // IMPORTANT: ID generation MUST match TOCAttributeProvider exactly
-                String id = "toc-" + (counter++);
-
-                ArticleResponse.TocItem item = new ArticleResponse.TocItem();
-                item.setText(text);
-                item.setId(id);
-                item.setLevel(heading.getLevel());
-                
-                toc.add(item);
-                super.visit(heading);
-            }
-        });
+        DocumentVisitor visitor = new DocumentVisitor();
+        PARSER.parse(markdown).accept(visitor);
+        return visitor.toc;
+    }
 
-        return toc;
+    /**
+     * Count Chinese characters and English words (including numbers)
+     */
+    public static int countWords(String text) {
+        if (!StringUtils.hasText(text)) {
+            return 0;
+        }
+        int count = 0;
+        Matcher matcher = WORD_PATTERN.matcher(text);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
     }
 
-    private static Node parse(String markdown) {
-        Parser parser = Parser.builder()
-                .extensions(Arrays.asList(TablesExtension.create()))
-                .build();
-        return parser.parse(markdown);
+    /**
+     * Serialize a TOC for the toc_json column
+     */
+    public static String toTocJson(List<ArticleResponse.TocItem> toc) {
+        try {
+            return TOC_MAPPER.writeValueAsString(toc == null ? new ArrayList<>() : toc);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize TOC", e);
+        }
+    }
+
+    /**
+     * Parse a TOC stored in the toc_json column, null if the value is missing or unreadable
+     */
+    public static List<ArticleResponse.TocItem> parseTocJson(String tocJson) {
+        if (!StringUtils.hasText(tocJson)) {
+            return null;
+        }
+        try {
+            return TOC_MAPPER.readValue(tocJson, TOC_TYPE);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
     }
 
     private static String extractHeadingText(Heading heading) {
@@ -94,6 +168,102 @@ public class MarkdownUtils {
         return StringUtils.hasText(text) ? text : "Heading";
     }
 
+    /**
+     * Result of a single Markdown parse
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RenderResult {
+        private final String html;
+        private final List<ArticleResponse.TocItem> toc;
+        private final int wordCount;
+        private final List<String> links;
+    }
+
+    /**
+     * Collects TOC, word count and links in one walk over the AST
+     */
+    private static class DocumentVisitor extends AbstractVisitor {
+        private final List<ArticleResponse.TocItem> toc = new ArrayList<>();
+        private final Set<String> links = new LinkedHashSet<>();
+        private int wordCount = 0;
+        private int headingCounter = 0;
+
+        @Override
+        public void visit(Heading heading) {
+            // IMPORTANT: ID generation MUST match TOCAttributeProvider exactly
+            ArticleResponse.TocItem item = new ArticleResponse.TocItem();
+            item.setText(extractHeadingText(heading));
+            item.setId("toc-" + (headingCounter++));
+            item.setLevel(heading.getLevel());
+            toc.add(item);
+            super.visit(heading);
+        }
+
+        @Override
+        public void visit(Text text) {
+            String literal = text.getLiteral();
+            wordCount += countWords(literal);
+            Matcher matcher = URL_PATTERN.matcher(literal);
+            while (matcher.find()) {
+                String url = TRAILING_PUNCTUATION.matcher(matcher.group(1)).replaceFirst("");
+                if (!url.endsWith("://")) {
+                    links.add(url);
+                }
+            }
+        }
+
+        @Override
+        public void visit(Code code) {
+            wordCount += countWords(code.getLiteral());
+        }
+
+        @Override
+        public void visit(FencedCodeBlock codeBlock) {
+            wordCount += countWords(codeBlock.getLiteral());
+        }
+
+        @Override
+        public void visit(IndentedCodeBlock codeBlock) {
+            wordCount += countWords(codeBlock.getLiteral());
+        }
+
+        @Override
+        public void visit(HtmlBlock htmlBlock) {
+            addHtmlLinks(htmlBlock.getLiteral());
+        }
+
+        @Override
+        public void visit(HtmlInline htmlInline) {
+            addHtmlLinks(htmlInline.getLiteral());
+        }
+
+        @Override
+        public void visit(Link link) {
+            addLink(link.getDestination());
+            super.visit(link);
+        }
+
+        @Override
+        public void visit(Image image) {
+            addLink(image.getDestination());
+            super.visit(image);
+        }
+
+        private void addHtmlLinks(String html) {
+            Matcher matcher = HTML_LINK_PATTERN.matcher(html);
+            while (matcher.find()) {
+                links.add(matcher.group(1));
+            }
+        }
+
+        private void addLink(String destination) {
+            if (destination != null && (destination.startsWith("http://") || destination.startsWith("https://"))) {
+                links.add(destination);
+            }
+        }
+    }
+
     private static class TOCAttributeProvider implements AttributeProvider {
         private int headingCount = 0;
 
@@ -0,0 +1,85 @@
+package com.myvlog.blog.aspect;
+
+import com.myvlog.blog.entity.OperationLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class OperationLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testBatchesIntoMultiRowInsert() {
+        // Drainer thread not started, batches are driven by hand
+        OperationLogWriter writer = new OperationLogWriter(jdbcTemplate, registry, 100, 3, OperationLogWriter.OverflowPolicy.DROP, 0, 10);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.submit(entry(i)));
+        }
+        assertEquals(5, registry.get("oplog.queue.depth").gauge().value());
+
+        assertEquals(3, writer.drainOnce());
+        assertEquals(2, writer.drainOnce());
+        assertEquals(0, writer.drainOnce());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), any(Object[].class));
+        assertEquals(3, sql.getAllValues().get(0).split("\\(\\?,").length - 1);
+        assertEquals(2, sql.getAllValues().get(1).split("\\(\\?,").length - 1);
+        assertEquals(0, writer.depth());
+        assertEquals(5, registry.get("oplog.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    public void testDropPolicyWhenFull() {
+        OperationLogWriter writer = new OperationLogWriter(jdbcTemplate, registry, 2, 10, OperationLogWriter.OverflowPolicy.DROP, 0, 10);
+        assertTrue(writer.submit(entry(1)));
+        assertTrue(writer.submit(entry(2)));
+        assertFalse(writer.submit(entry(3)));
+        assertEquals(1, registry.get("oplog.dropped").counter().count());
+    }
+
+    @Test
+    public void testSamplePolicyThinsAboveHalfCapacity() {
+        OperationLogWriter writer = new OperationLogWriter(jdbcTemplate, registry, 100, 10, OperationLogWriter.OverflowPolicy.SAMPLE, 0, 10);
+        int accepted = 0;
+        for (int i = 0; i < 150; i++) {
+            if (writer.submit(entry(i))) {
+                accepted++;
+            }
+        }
+        // 50 unconditionally, then 1 in 10 of the remaining 100
+        assertEquals(60, accepted);
+    }
+
+    @Test
+    public void testFailedInsertIsCountedAndDoesNotThrow() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new RuntimeException("db down"));
+        OperationLogWriter writer = new OperationLogWriter(jdbcTemplate, registry, 10, 10, OperationLogWriter.OverflowPolicy.BLOCK, 10, 10);
+        writer.submit(entry(1));
+
+        assertEquals(1, writer.drainOnce());
+        assertEquals(1, registry.get("oplog.write.failures").counter().count());
+    }
+
+    private static OperationLog entry(int i) {
+        OperationLog operationLog = new OperationLog();
+        operationLog.setUsername("user" + i);
+        operationLog.setAction("test");
+        return operationLog;
+    }
+}
@@ -0,0 +1,74 @@
+package com.myvlog.blog.cache;
+
+import com.myvlog.blog.utils.MarkdownUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArticleRenderCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ArticleRenderCache renderCache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        renderCache = new ArticleRenderCache(registry, 1_000_000);
+    }
+
+    @Test
+    public void testSameContentHitsCache() {
+        MarkdownUtils.RenderResult first = renderCache.get(1L, "# Title\n\nBody");
+        MarkdownUtils.RenderResult second = renderCache.get(1L, "# Title\n\nBody");
+
+        assertSame(first, second);
+        assertEquals(1, hits());
+        assertEquals(1, misses());
+    }
+
+    @Test
+    public void testChangedContentIsRenderedAgain() {
+        MarkdownUtils.RenderResult first = renderCache.get(1L, "# Old");
+        MarkdownUtils.RenderResult second = renderCache.get(1L, "# New");
+
+        assertNotSame(first, second);
+        assertTrue(second.getHtml().contains("New"));
+        // The new content replaced the old entry
+        assertSame(second, renderCache.get(1L, "# New"));
+    }
+
+    @Test
+    public void testInvalidateAndSeededEntries() {
+        MarkdownUtils.RenderResult seeded = MarkdownUtils.render("# Seeded");
+        renderCache.put(2L, "# Seeded", seeded);
+        assertSame(seeded, renderCache.get(2L, "# Seeded"));
+
+        renderCache.invalidate(2L);
+
+        assertNotSame(seeded, renderCache.get(2L, "# Seeded"));
+    }
+
+    @Test
+    public void testEntriesHeavierThanTheBoundAreNotKept() {
+        ArticleRenderCache small = new ArticleRenderCache(new SimpleMeterRegistry(), 1_000);
+        String large = "word ".repeat(2_000);
+        String tiny = "hi";
+
+        MarkdownUtils.RenderResult largeResult = small.get(1L, large);
+        MarkdownUtils.RenderResult tinyResult = small.get(2L, tiny);
+
+        // Weighed by rendered characters, so the 10k-char article is evicted while the tiny one stays
+        assertNotSame(largeResult, small.get(1L, large));
+        assertSame(tinyResult, small.get(2L, tiny));
+    }
+
+    private double hits() {
+        return registry.get("cache.gets").tag("cache", "article.render").tag("result", "hit").functionCounter().count();
+    }
+
+    private double misses() {
+        return registry.get("cache.gets").tag("cache", "article.render").tag("result", "miss").functionCounter().count();
+    }
+}
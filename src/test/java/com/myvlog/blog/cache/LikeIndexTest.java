@@ -0,0 +1,92 @@
+package com.myvlog.blog.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.myvlog.blog.entity.ArticleLike;
+import com.myvlog.blog.mapper.ArticleLikeMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LikeIndexTest {
+
+    private ArticleLikeMapper articleLikeMapper;
+    private LikeIndex likeIndex;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ArticleLike.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        articleLikeMapper = mock(ArticleLikeMapper.class);
+        likeIndex = new LikeIndex(articleLikeMapper, new SimpleMeterRegistry(), 1000);
+    }
+
+    @Test
+    public void testPageOfFlagsIsOneQueryPerUserThenCached() {
+        when(articleLikeMapper.selectList(any())).thenReturn(List.of(like(1, 100), like(3, 100)));
+
+        assertEquals(Set.of(1L, 3L), likeIndex.likedAmong(100L, List.of(1L, 2L, 3L)));
+        assertEquals(Set.of(1L, 3L), likeIndex.likedAmong(100L, List.of(1L, 2L, 3L)));
+        assertFalse(likeIndex.hasLiked(2L, 100L));
+
+        ArgumentCaptor<Wrapper<ArticleLike>> query = ArgumentCaptor.forClass(Wrapper.class);
+        verify(articleLikeMapper, times(1)).selectList(query.capture());
+        // Only the user's own rows on the page are read, never every liker of the articles
+        String sql = query.getValue().getCustomSqlSegment();
+        assertTrue(sql.contains("user_id ="), sql);
+        assertTrue(sql.contains("article_id IN"), sql);
+
+        when(articleLikeMapper.selectList(any())).thenReturn(List.of(like(3, 200)));
+        assertEquals(Set.of(3L), likeIndex.likedAmong(200L, List.of(1L, 2L, 3L)));
+        verify(articleLikeMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    public void testWritesKeepLoadedFlagsInStep() {
+        when(articleLikeMapper.selectList(any())).thenReturn(List.of(like(1, 100)));
+        assertTrue(likeIndex.hasLiked(1L, 100L));
+
+        likeIndex.added(1L, 200L);
+        likeIndex.removed(1L, 100L);
+
+        assertTrue(likeIndex.hasLiked(1L, 200L));
+        assertFalse(likeIndex.hasLiked(1L, 100L));
+        verify(articleLikeMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testLoadOverlappingWriteIsNotCached() {
+        when(articleLikeMapper.selectList(any())).thenAnswer(invocation -> {
+            // A like commits while the rows are being read
+            likeIndex.added(1L, 200L);
+            return List.of();
+        });
+
+        assertFalse(likeIndex.hasLiked(1L, 200L));
+
+        // The stale "not liked" read did not overwrite the committed like
+        assertTrue(likeIndex.hasLiked(1L, 200L));
+        verify(articleLikeMapper, times(1)).selectList(any());
+    }
+
+    private static ArticleLike like(long articleId, long userId) {
+        ArticleLike like = new ArticleLike();
+        like.setArticleId(articleId);
+        like.setUserId(userId);
+        return like;
+    }
+}
@@ -0,0 +1,79 @@
+package com.myvlog.blog.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.myvlog.blog.entity.User;
+import com.myvlog.blog.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    private UserMapper userMapper;
+    private UserCache userCache;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        userCache = new UserCache(userMapper, new SimpleMeterRegistry(), 60, 100);
+    }
+
+    @Test
+    public void testRepeatedLookupsHitCache() {
+        when(userMapper.selectOne(any())).thenReturn(user(1, "alice", "user"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1L, userCache.get("alice").getId());
+        }
+        verify(userMapper, times(1)).selectOne(any());
+    }
+
+    @Test
+    public void testCallersGetCopies() {
+        when(userMapper.selectOne(any())).thenReturn(user(1, "alice", "user"));
+
+        userCache.get("alice").setRole("admin");
+
+        assertEquals("user", userCache.get("alice").getRole());
+    }
+
+    @Test
+    public void testInvalidateReloads() {
+        when(userMapper.selectOne(any())).thenReturn(user(1, "alice", "user"), user(1, "alice", "vip"));
+        assertEquals("user", userCache.get("alice").getRole());
+
+        User withoutUsername = new User();
+        withoutUsername.setId(1L);
+        userCache.invalidate(withoutUsername);
+
+        assertEquals("vip", userCache.get("alice").getRole());
+        verify(userMapper, times(2)).selectOne(any());
+    }
+
+    @Test
+    public void testMissingUserIsCachedToo() {
+        assertNull(userCache.get("ghost"));
+        assertNull(userCache.get("ghost"));
+        verify(userMapper, times(1)).selectOne(any());
+    }
+
+    private static User user(long id, String username, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+}
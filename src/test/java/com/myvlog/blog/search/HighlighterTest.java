@@ -0,0 +1,40 @@
+package com.myvlog.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HighlighterTest {
+
+    @Test
+    public void testMultiTermCaseInsensitive() {
+        Highlighter highlighter = Highlighter.compile("spring 缓存");
+        assertEquals("<mark>Spring</mark> Boot 的<mark>缓存</mark>与 <mark>SPRING</mark>",
+                highlighter.highlight("Spring Boot 的缓存与 SPRING"));
+    }
+
+    @Test
+    public void testOverlappingTermsMerge() {
+        Highlighter highlighter = Highlighter.compile("ab bcd c");
+        assertEquals("x<mark>abcd</mark>y", highlighter.highlight("xabcdy"));
+    }
+
+    @Test
+    public void testEscapesHtml() {
+        Highlighter highlighter = Highlighter.compile("<b>");
+        assertEquals("a &amp; <mark>&lt;b&gt;</mark> &quot;q&quot;", highlighter.highlight("a & <b> \"q\""));
+        assertEquals("&lt;script&gt;", Highlighter.compile(null).highlight("<script>"));
+    }
+
+    @Test
+    public void testSnippetWindow() {
+        String content = "intro ".repeat(50) + "the keyword sits here " + "outro ".repeat(50);
+        String snippet = Highlighter.compile("keyword").snippet(content, 40);
+
+        assertNotNull(snippet);
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.endsWith("…"));
+        assertTrue(snippet.contains("<mark>keyword</mark>"));
+        assertNull(Highlighter.compile("absent").snippet(content, 40));
+    }
+}
@@ -0,0 +1,127 @@
+package com.myvlog.blog.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+
+    @Test
+    public void testTokenizerBigramsAndWords() {
+        assertEquals(List.of("数据", "据库", "mysql", "8"), Tokenizer.tokenize("数据库 MySQL-8"));
+        assertEquals(List.of("库"), Tokenizer.tokenize("库"));
+        assertTrue(Tokenizer.tokenize("!!  ").isEmpty());
+    }
+
+    @Test
+    public void testBm25RanksDenserMatchFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "Java notes", null, "A long article that mentions java once among many other unrelated words here");
+        index.add(2, "Java Java", null, "java java");
+        index.add(3, "Python", null, "nothing relevant");
+
+        List<InvertedIndex.Result> results = index.search(Tokenizer.tokenize("java"), 10);
+
+        assertEquals(2, results.size());
+        assertEquals(2L, results.get(0).getArticleId());
+        assertEquals(1L, results.get(1).getArticleId());
+    }
+
+    @Test
+    public void testChineseQueryMatchesBigrams() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "数据库索引优化", null, "");
+        index.add(2, "前端框架", null, "");
+
+        assertEquals(1L, index.search(Tokenizer.tokenize("数据库"), 10).get(0).getArticleId());
+        // A single character is widened to the bigrams containing it
+        assertEquals(1L, index.search(Tokenizer.tokenize("索"), 10).get(0).getArticleId());
+        assertTrue(index.search(Tokenizer.tokenize("后端"), 10).isEmpty());
+    }
+
+    @Test
+    public void testUpdateRemoveAndCompact() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, "spring boot", null, "");
+        index.add(1, "quarkus", null, "");
+        assertTrue(index.search(Tokenizer.tokenize("spring"), 10).isEmpty());
+        assertEquals(1L, index.search(Tokenizer.tokenize("quarkus"), 10).get(0).getArticleId());
+
+        for (long id = 2; id < 3000; id++) {
+            index.add(id, "filler " + id, null, "");
+        }
+        for (long id = 2; id < 3000; id++) {
+            index.remove(id);
+        }
+        assertEquals(1, index.size());
+        assertEquals("quarkus", index.search(Tokenizer.tokenize("quarkus"), 10).get(0).getTitle());
+        assertTrue(index.search(Tokenizer.tokenize("filler"), 10).isEmpty());
+    }
+
+    /**
+     * Relative, in-memory latency comparison on 100k synthetic articles: the index against a
+     * linear substring scan over the same contents, lower-cased up front. This is not a
+     * measurement of MySQL LIKE '%kw%', which also pays for row reads and collation; it only
+     * shows how the index scales against touching every document.
+     * Run with: mvn test -Dtest=InvertedIndexTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkAgainstInMemoryScan() {
+        int docs = 100_000;
+        String[] vocabulary = {"java", "spring", "mysql", "索引", "缓存", "数据库", "性能", "redis", "kafka", "分布式", "事务", "优化"};
+        Random random = new Random(42);
+        InvertedIndex index = new InvertedIndex();
+        List<String> contents = new ArrayList<>(docs);
+        for (int i = 0; i < docs; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int w = 0; w < 200; w++) {
+                sb.append(vocabulary[random.nextInt(vocabulary.length)]).append(random.nextInt(5000)).append(' ');
+            }
+            String content = sb.toString();
+            contents.add(content.toLowerCase(Locale.ROOT));
+            index.add(i, "Article " + i, null, content);
+        }
+
+        String[] queries = {"java123", "数据库", "redis4999", "分布式 事务"};
+        // At least 100 samples each, so p99 is not simply the maximum of a handful; first warm up
+        long[] indexNanos = new long[1000];
+        long[] scanNanos = new long[100];
+        for (int i = 0; i < 200; i++) {
+            index.search(Tokenizer.tokenize(queries[i % queries.length]), 20);
+        }
+        for (int i = 0; i < indexNanos.length; i++) {
+            long start = System.nanoTime();
+            index.search(Tokenizer.tokenize(queries[i % queries.length]), 20);
+            indexNanos[i] = System.nanoTime() - start;
+        }
+        for (int i = 0; i < scanNanos.length; i++) {
+            String keyword = queries[i % queries.length].toLowerCase(Locale.ROOT);
+            long start = System.nanoTime();
+            int matches = 0;
+            for (String content : contents) {
+                if (content.contains(keyword)) {
+                    matches++;
+                }
+            }
+            scanNanos[i] = System.nanoTime() - start + (matches < 0 ? 1 : 0);
+        }
+
+        System.out.printf("index p99 = %.2f ms (%d samples), in-memory scan p99 = %.2f ms (%d samples)%n",
+                p99(indexNanos) / 1e6, indexNanos.length, p99(scanNanos) / 1e6, scanNanos.length);
+        assertTrue(p99(indexNanos) < p99(scanNanos));
+    }
+
+    private static long p99(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+}
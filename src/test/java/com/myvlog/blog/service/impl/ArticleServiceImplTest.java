@@ -0,0 +1,328 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.myvlog.blog.cache.ArticleCountCache;
+import com.myvlog.blog.cache.ArticleRenderCache;
+import com.myvlog.blog.cache.LikeIndex;
+import com.myvlog.blog.cache.UserCache;
+import com.myvlog.blog.dto.ArticleResponse;
+import com.myvlog.blog.dto.CursorPage;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.entity.ArticleTag;
+import com.myvlog.blog.entity.Category;
+import com.myvlog.blog.entity.Tag;
+import com.myvlog.blog.entity.User;
+import com.myvlog.blog.enums.ArticleStatus;
+import com.myvlog.blog.enums.ArticleVisibility;
+import com.myvlog.blog.enums.CountMode;
+import com.myvlog.blog.mapper.ArticleLikeMapper;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.mapper.ArticleTagMapper;
+import com.myvlog.blog.mapper.CategoryMapper;
+import com.myvlog.blog.mapper.TagMapper;
+import com.myvlog.blog.mapper.UserMapper;
+import com.myvlog.blog.security.AuthUser;
+import com.myvlog.blog.service.SearchService;
+import com.myvlog.blog.service.SubscriberService;
+import com.myvlog.blog.service.WebhookService;
+import com.myvlog.blog.stats.HotRanking;
+import com.myvlog.blog.stats.SiteStats;
+import com.myvlog.blog.stats.TrafficStats;
+import com.myvlog.blog.stats.ViewCountBuffer;
+import com.myvlog.blog.utils.CursorUtils;
+import com.myvlog.blog.utils.MarkdownUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleServiceImplTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Mock private UserMapper userMapper;
+    @Mock private UserCache userCache;
+    @Mock private CategoryMapper categoryMapper;
+    @Mock private ArticleMapper articleMapper;
+    @Mock private ArticleLikeMapper articleLikeMapper;
+    @Mock private ArticleTagMapper articleTagMapper;
+    @Mock private TagMapper tagMapper;
+    @Mock private SubscriberService subscriberService;
+    @Mock private WebhookService webhookService;
+    @Mock private ViewCountBuffer viewCountBuffer;
+    @Mock private SearchService searchService;
+    @Mock private LikeIndex likeIndex;
+    @Mock private HotRanking hotRanking;
+    @Mock private SiteStats siteStats;
+    @Mock private TrafficStats trafficStats;
+    @Spy private ArticleRenderCache articleRenderCache = new ArticleRenderCache(new SimpleMeterRegistry(), 1_000_000);
+    @Spy private ArticleCountCache articleCountCache = new ArticleCountCache(new SimpleMeterRegistry(), 60, 100);
+
+    @InjectMocks
+    private ArticleServiceImpl articleService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Article.class);
+        TableInfoHelper.initTableInfo(assistant, ArticleTag.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        ReflectionTestUtils.setField(articleService, "baseMapper", articleMapper);
+    }
+
+    @Test
+    public void testListPageUsesOneQueryPerRelation() {
+        List<Article> articles = new ArrayList<>();
+        List<ArticleTag> articleTags = new ArrayList<>();
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            articles.add(article(i, i % 3 + 1, i % 4 + 1));
+            articleTags.add(articleTag(i, i % 5 + 1));
+            articleTags.add(articleTag(i, i % 5 + 2));
+        }
+
+        Page<Article> result = new Page<>(1, PAGE_SIZE, 100);
+        result.setRecords(articles);
+        when(articleMapper.selectPage(any(), any())).thenReturn(result);
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(1), user(2), user(3)));
+        when(categoryMapper.selectBatchIds(anyCollection())).thenReturn(List.of(category(1), category(2), category(3), category(4)));
+        when(articleTagMapper.selectList(any())).thenReturn(articleTags);
+        when(tagMapper.selectBatchIds(anyCollection())).thenReturn(List.of(tag(1), tag(2), tag(3), tag(4), tag(5), tag(6)));
+
+        IPage<ArticleResponse> page = articleService.getArticleList(new Page<>(1, PAGE_SIZE), null, null, "PUBLISHED", "newest");
+
+        assertEquals(PAGE_SIZE, page.getRecords().size());
+        assertEquals(100, page.getTotal());
+
+        // page select + users + categories + article_tags + tags, independent of page size
+        assertEquals(5, statementCount());
+
+        ArticleResponse first = page.getRecords().get(0);
+        assertEquals(1L, first.getId());
+        assertEquals("user2", first.getAuthor().getUsername());
+        assertEquals("category2", first.getCategory().getName());
+        assertEquals(2, first.getTags().size());
+    }
+
+    @Test
+    public void testEmptyPageSkipsRelationQueries() {
+        Page<Article> result = new Page<>(1, PAGE_SIZE, 0);
+        when(articleMapper.selectPage(any(), any())).thenReturn(result);
+
+        IPage<ArticleResponse> page = articleService.getArticleList(new Page<>(1, PAGE_SIZE), null, null, "PUBLISHED", "newest");
+
+        assertTrue(page.getRecords().isEmpty());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void testPublicHotListServedFromRanking() {
+        when(hotRanking.page(0, PAGE_SIZE)).thenReturn(List.of(3L, 1L));
+        when(hotRanking.total()).thenReturn(2);
+        when(articleMapper.selectBatchIds(anyCollection())).thenReturn(List.of(article(1, 1, 1), article(3, 1, 1)));
+
+        // The public endpoint always passes PUBLISHED
+        IPage<ArticleResponse> page = articleService.getArticleList(new Page<>(1, PAGE_SIZE), null, null, "PUBLISHED", "hottest", CountMode.EXACT);
+
+        assertEquals(List.of(3L, 1L), page.getRecords().stream().map(ArticleResponse::getId).toList());
+        assertEquals(2, page.getTotal());
+        verify(articleMapper, never()).selectPage(any(), any());
+    }
+
+    @Test
+    public void testApproxCountReusesCachedTotal() {
+        Page<Article> counted = new Page<>(1, PAGE_SIZE, 100);
+        Page<Article> uncounted = new Page<>(2, PAGE_SIZE, 0);
+        Page<Article> recounted = new Page<>(2, PAGE_SIZE, 99);
+        when(articleMapper.selectPage(any(), any())).thenReturn(counted, uncounted, recounted, uncounted);
+
+        articleService.getArticleList(new Page<>(1, PAGE_SIZE), 3L, null, "published", "newest", CountMode.APPROX);
+        Page<Article> second = new Page<>(2, PAGE_SIZE);
+        IPage<ArticleResponse> page = articleService.getArticleList(second, 3L, null, "PUBLISHED", "hottest", CountMode.APPROX);
+
+        assertFalse(second.searchCount());
+        assertEquals(100, page.getTotal());
+
+        // Deleting an article drops the cached totals, so the next APPROX page counts again
+        when(articleMapper.selectById(5L)).thenReturn(article(5, 1, 3));
+        when(articleMapper.deleteById(5L)).thenReturn(1);
+        when(userCache.get("user1")).thenReturn(user(1));
+        AuthUser author = new AuthUser(1L, "user1", "", true, "user", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(author, null, List.of()));
+        try {
+            articleService.deleteArticle(5L);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertNull(articleCountCache.get("list|PUBLISHED|3|null|guest"));
+
+        Page<Article> third = new Page<>(2, PAGE_SIZE);
+        assertEquals(99, articleService.getArticleList(third, 3L, null, "PUBLISHED", "newest", CountMode.APPROX).getTotal());
+        assertTrue(third.searchCount());
+
+        // NONE never counts
+        Page<Article> fourth = new Page<>(2, PAGE_SIZE);
+        assertEquals(-1, articleService.getArticleList(fourth, 3L, null, "PUBLISHED", "newest", CountMode.NONE).getTotal());
+        assertFalse(fourth.searchCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScrollSeeksPastCursorWithoutCounting() {
+        Article pinned = article(9, 1, 1);
+        pinned.setIsTop(true);
+        Article draft = article(5, 1, 1);
+        draft.setIsTop(false);
+        draft.setPublishedAt(null);
+        when(articleMapper.selectList(any())).thenReturn(List.of(pinned, draft, article(4, 1, 1)));
+
+        CursorPage<ArticleResponse> first = articleService.scrollArticles(null, null, null, null, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
+        CursorUtils.ArticlePosition position = CursorUtils.decodeArticle(first.getNextCursor());
+        assertFalse(position.isTop());
+        assertNull(position.getPublishedAt());
+        assertEquals(5L, position.getId());
+
+        articleService.scrollArticles(null, null, null, first.getNextCursor(), 2);
+
+        ArgumentCaptor<LambdaQueryWrapper<Article>> wrapper = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(articleMapper, Mockito.times(2)).selectList(wrapper.capture());
+        String sql = wrapper.getValue().getCustomSqlSegment();
+        assertTrue(sql.contains("is_top = "), sql);
+        assertTrue(sql.contains("published_at IS NULL AND id <"), sql);
+        assertTrue(sql.endsWith("LIMIT 3"), sql);
+        verify(articleMapper, never()).selectPage(any(), any());
+        verify(articleMapper, never()).selectCount(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScrollPastLastPinnedContinuesWithUnpinnedGroup() {
+        Article lastPinned = article(9, 1, 1);
+        lastPinned.setIsTop(true);
+        Article unpinned = article(4, 1, 1);
+        unpinned.setIsTop(false);
+        when(articleMapper.selectList(any())).thenReturn(List.of(lastPinned), List.of(unpinned));
+
+        String cursor = CursorUtils.encodeArticle(true, LocalDateTime.now(), 10L);
+        CursorPage<ArticleResponse> page = articleService.scrollArticles(null, null, null, cursor, 2);
+
+        assertEquals(List.of(9L, 4L), page.getItems().stream().map(ArticleResponse::getId).toList());
+        assertFalse(page.isHasMore());
+        ArgumentCaptor<LambdaQueryWrapper<Article>> wrappers = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(articleMapper, Mockito.times(2)).selectList(wrappers.capture());
+        // One range per is_top group: the rest of the pinned group, then the unpinned group from its start
+        String pinned = wrappers.getAllValues().get(0).getCustomSqlSegment();
+        String rest = wrappers.getAllValues().get(1).getCustomSqlSegment();
+        assertTrue(pinned.contains("is_top = ") && pinned.contains("published_at <") && pinned.endsWith("LIMIT 3"), pinned);
+        assertTrue(rest.contains("is_top = ") && !rest.contains("published_at <") && rest.endsWith("LIMIT 2"), rest);
+    }
+
+    @Test
+    public void testStoredRenderIsServedWithoutParsing() {
+        Article stored = article(1, 1, 1);
+        stored.setHtmlContent("<h1 id=\"toc-0\">Stored</h1>");
+        stored.setTocJson("[{\"text\":\"Stored\",\"id\":\"toc-0\",\"level\":1}]");
+        stored.setRenderVersion(MarkdownUtils.RENDER_VERSION);
+        Article stale = article(2, 1, 1);
+        stale.setHtmlContent("<p>old</p>");
+        stale.setRenderVersion(MarkdownUtils.RENDER_VERSION - 1);
+
+        Page<Article> result = new Page<>(1, PAGE_SIZE, 2);
+        result.setRecords(List.of(stored, stale));
+        when(articleMapper.selectPage(any(), any())).thenReturn(result);
+
+        IPage<ArticleResponse> page = articleService.getArticleList(new Page<>(1, PAGE_SIZE), null, null, "PUBLISHED", "newest");
+
+        assertEquals("<h1 id=\"toc-0\">Stored</h1>", page.getRecords().get(0).getContentHtml());
+        assertEquals("Stored", page.getRecords().get(0).getToc().get(0).getText());
+        assertTrue(page.getRecords().get(1).getContentHtml().contains("Heading 2"));
+        verify(articleRenderCache, never()).get(eq(1L), any());
+        verify(articleRenderCache).get(eq(2L), any());
+    }
+
+    private int statementCount() {
+        int count = 0;
+        for (Object mapper : List.of(userMapper, categoryMapper, articleMapper, articleLikeMapper, articleTagMapper, tagMapper)) {
+            count += Mockito.mockingDetails(mapper).getInvocations().size();
+        }
+        return count;
+    }
+
+    private static Article article(long id, long authorId, long categoryId) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("Article " + id);
+        article.setSlug("article-" + id);
+        article.setContent("# Heading " + id + "\n\nBody");
+        article.setAuthorId(authorId);
+        article.setCategoryId(categoryId);
+        article.setStatus(ArticleStatus.PUBLISHED);
+        article.setVisibility(ArticleVisibility.PUBLIC);
+        article.setViewCount(0);
+        article.setPublishedAt(LocalDateTime.now());
+        return article;
+    }
+
+    private static ArticleTag articleTag(long articleId, long tagId) {
+        ArticleTag articleTag = new ArticleTag();
+        articleTag.setArticleId(articleId);
+        articleTag.setTagId(tagId);
+        return articleTag;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setRole("user");
+        return user;
+    }
+
+    private static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("category" + id);
+        return category;
+    }
+
+    private static Tag tag(long id) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName("tag" + id);
+        return tag;
+    }
+}
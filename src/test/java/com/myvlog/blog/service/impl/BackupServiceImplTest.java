@@ -0,0 +1,296 @@
+package com.myvlog.blog.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myvlog.blog.dto.BackupManifest;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.entity.Category;
+import com.myvlog.blog.enums.BackupType;
+import com.myvlog.blog.mapper.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.zip.ZipEntry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BackupServiceImplTest {
+
+    @TempDir
+    Path backupDir;
+
+    private ArticleMapper articleMapper;
+    private CategoryMapper categoryMapper;
+    private TagMapper tagMapper;
+    private CommentMapper commentMapper;
+    private UserMapper userMapper;
+    private SystemConfigMapper systemConfigMapper;
+    private DeadLinkMapper deadLinkMapper;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry registry;
+    private BackupServiceImpl backupService;
+
+    @BeforeEach
+    void setUp() {
+        articleMapper = mock(ArticleMapper.class);
+        categoryMapper = mock(CategoryMapper.class);
+        tagMapper = mock(TagMapper.class);
+        commentMapper = mock(CommentMapper.class);
+        userMapper = mock(UserMapper.class);
+        systemConfigMapper = mock(SystemConfigMapper.class);
+        deadLinkMapper = mock(DeadLinkMapper.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        // Every table is empty unless a test says otherwise
+        when(articleMapper.streamIds()).thenAnswer(inv -> empty());
+        when(categoryMapper.streamAll()).thenAnswer(inv -> empty());
+        when(categoryMapper.streamIds()).thenAnswer(inv -> empty());
+        when(tagMapper.streamAll()).thenAnswer(inv -> empty());
+        when(tagMapper.streamIds()).thenAnswer(inv -> empty());
+        when(commentMapper.streamAll()).thenAnswer(inv -> empty());
+        when(commentMapper.streamIds()).thenAnswer(inv -> empty());
+        when(userMapper.streamAll()).thenAnswer(inv -> empty());
+        when(userMapper.streamIds()).thenAnswer(inv -> empty());
+        when(systemConfigMapper.streamAll()).thenAnswer(inv -> empty());
+        when(systemConfigMapper.streamKeys()).thenAnswer(inv -> empty());
+        when(deadLinkMapper.streamAll()).thenAnswer(inv -> empty());
+        when(deadLinkMapper.streamIds()).thenAnswer(inv -> empty());
+
+        registry = new SimpleMeterRegistry();
+        backupService = service(4);
+    }
+
+    private BackupServiceImpl service(int parallelism) {
+        return new BackupServiceImpl(articleMapper, categoryMapper, tagMapper, commentMapper, userMapper,
+                systemConfigMapper, deadLinkMapper, transactionManager, registry, backupDir.toString(),
+                "incremental", 7, 300, parallelism, 6);
+    }
+
+    @Test
+    public void testSingleThreadStreamsIntoDeflatedEntriesInOneTransaction() throws IOException {
+        when(articleMapper.streamAll()).thenReturn(new GeneratedCursor<>(1_000, BackupServiceImplTest::article));
+        when(articleMapper.streamIds()).thenReturn(new GeneratedCursor<>(1_000, i -> (long) i));
+
+        File zip = service(1).performBackup();
+
+        // One snapshot for every table, and no spool directory
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(Set.of("chain.json", zip.getName()), Set.of(backupDir.toFile().list()));
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            ZipEntry rows = zipFile.getEntry("articles.json");
+            assertEquals(ZipEntry.DEFLATED, rows.getMethod());
+            assertTrue(rows.getCompressedSize() < rows.getSize());
+            JsonNode exported = new ObjectMapper().readTree(zipFile.getInputStream(rows));
+            assertEquals(1_000, exported.size());
+            assertEquals("Article 7", exported.get(7).get("title").asText());
+            assertNotNull(zipFile.getEntry("articles.keys"));
+            assertNull(zipFile.getEntry("articles.json.gz"));
+        }
+    }
+
+    @Test
+    public void testFirstParallelFailureCancelsRunningTables() {
+        // Articles would take minutes; categories fails at once
+        GeneratedCursor<Article> slow = new GeneratedCursor<>(Integer.MAX_VALUE, i -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return article(i);
+        });
+        when(articleMapper.streamAll()).thenReturn(slow);
+        when(categoryMapper.streamAll()).thenThrow(new RuntimeException("connection lost"));
+
+        RuntimeException e = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(RuntimeException.class, () -> backupService.performBackup()));
+
+        assertEquals("connection lost", e.getCause().getMessage());
+        assertTrue(slow.closed.get());
+        assertArrayEquals(new String[0], backupDir.toFile().list());
+    }
+
+    @Test
+    public void testStreamsEveryRowIntoItsZipEntry() throws IOException {
+        GeneratedCursor<Article> articles = new GeneratedCursor<>(50_000, BackupServiceImplTest::article);
+        when(articleMapper.streamAll()).thenReturn(articles);
+        when(articleMapper.streamIds()).thenReturn(new GeneratedCursor<>(50_000, i -> (long) i));
+        when(categoryMapper.streamAll()).thenReturn(new GeneratedCursor<>(2, BackupServiceImplTest::category));
+
+        File zip = backupService.performBackup();
+
+        assertTrue(articles.closed.get());
+        assertEquals(50_000, registry.get("backup.rows").tag("table", "articles").counter().count());
+        assertTrue(registry.get("backup.bytes").tag("table", "articles").counter().count() > 0);
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            // Rows and key list per table, plus the manifest
+            assertEquals(15, Collections.list(zipFile.entries()).size());
+            Map<String, JsonNode> tables = new HashMap<>();
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (entry.getName().endsWith(".json.gz")) {
+                    // Spooled gzip streams are copied in as they are
+                    assertEquals(ZipEntry.STORED, entry.getMethod());
+                    tables.put(entry.getName(), readGzip(zipFile, entry.getName()));
+                }
+            }
+            JsonNode exported = tables.get("articles.json.gz");
+            assertEquals(50_000, exported.size());
+            assertEquals(49_999, exported.get(49_999).get("id").asLong());
+            assertEquals("Article 7", exported.get(7).get("title").asText());
+            assertEquals("category1", tables.get("categories.json.gz").get(1).get("name").asText());
+            assertEquals(0, tables.get("dead_links.json.gz").size());
+            JsonNode manifest = new ObjectMapper().readTree(zipFile.getInputStream(zipFile.getEntry("manifest.json")));
+            assertEquals("FULL", manifest.get("type").asText());
+            assertEquals(50_000, manifest.get("tables").get("articles").get("keys").asLong());
+        }
+    }
+
+    @Test
+    public void testIncrementalExportsChangesAndTombstonesSinceWatermark() throws IOException {
+        LocalDateTime t0 = LocalDateTime.of(2026, 3, 1, 2, 0);
+        when(articleMapper.streamAll()).thenReturn(new GeneratedCursor<>(5, i -> article(i, t0.plusMinutes(i))));
+        when(articleMapper.streamIds()).thenReturn(new GeneratedCursor<>(5, i -> (long) i));
+        File full = backupService.performBackup();
+
+        // Article 2 edited, article 3 deleted, article 5 created
+        List<Article> changed = List.of(article(2, t0.plusMinutes(10)), article(5, t0.plusMinutes(11)));
+        when(articleMapper.streamChangedSince(any(), any())).thenReturn(new GeneratedCursor<>(2, changed::get));
+        long[] ids = {0, 1, 2, 4, 5};
+        when(articleMapper.streamIds()).thenReturn(new GeneratedCursor<>(ids.length, i -> ids[i]));
+        File incremental = backupService.performScheduledBackup();
+
+        // Rewound by the overlap window from the full backup's watermark
+        verify(articleMapper).streamChangedSince(t0.plusMinutes(4).minusSeconds(300), 4L);
+        assertTrue(incremental.getName().endsWith("_inc.zip"));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        try (ZipFile zipFile = new ZipFile(incremental)) {
+            assertEquals(2, readGzip(zipFile, "articles.json.gz").size());
+            JsonNode deleted = readGzip(zipFile, "articles.deleted.json.gz");
+            assertEquals(1, deleted.size());
+            assertEquals(3, deleted.get(0).asLong());
+
+            BackupManifest manifest = objectMapper.readValue(
+                    zipFile.getInputStream(zipFile.getEntry("manifest.json")), BackupManifest.class);
+            assertEquals(BackupType.INCREMENTAL, manifest.getType());
+            assertEquals(List.of(full.getName(), incremental.getName()), manifest.getChain());
+            assertEquals(full.getName(), manifest.getParent());
+            BackupManifest.TableState articles = manifest.getTables().get("articles");
+            assertEquals(t0.plusMinutes(11), articles.getWatermarkUpdatedAt());
+            assertEquals("5", articles.getWatermarkKey());
+            assertEquals(5, articles.getKeys());
+        }
+        assertEquals(incremental.getName(),
+                objectMapper.readValue(backupDir.resolve("chain.json").toFile(), BackupManifest.class).getFile());
+    }
+
+    @Test
+    public void testFailedBackupLeavesNoArchive() {
+        when(articleMapper.streamAll()).thenReturn(new GeneratedCursor<>(10, BackupServiceImplTest::article));
+        when(categoryMapper.streamAll()).thenThrow(new RuntimeException("connection lost"));
+
+        assertThrows(RuntimeException.class, () -> backupService.performBackup());
+        assertArrayEquals(new String[0], backupDir.toFile().list());
+    }
+
+    private static JsonNode readGzip(ZipFile zipFile, String name) throws IOException {
+        try (InputStream in = new GZIPInputStream(zipFile.getInputStream(zipFile.getEntry(name)))) {
+            return new ObjectMapper().readTree(in);
+        }
+    }
+
+    private static Article article(int i) {
+        Article article = new Article();
+        article.setId((long) i);
+        article.setTitle("Article " + i);
+        article.setContent("Body of article " + i);
+        return article;
+    }
+
+    private static Article article(int i, LocalDateTime updatedAt) {
+        Article article = article(i);
+        article.setUpdatedAt(updatedAt);
+        return article;
+    }
+
+    private static <T> GeneratedCursor<T> empty() {
+        return new GeneratedCursor<>(0, i -> null);
+    }
+
+    private static Category category(int i) {
+        Category category = new Category();
+        category.setId((long) i);
+        category.setName("category" + i);
+        return category;
+    }
+
+    /**
+     * Cursor that creates each row on demand, like a streaming result set
+     */
+    private static class GeneratedCursor<T> implements Cursor<T> {
+        private final int size;
+        private final IntFunction<T> rows;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private int index = -1;
+
+        GeneratedCursor(int size, IntFunction<T> rows) {
+            this.size = size;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed.get();
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return index == size - 1;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return index;
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return index + 1 < size;
+                }
+
+                @Override
+                public T next() {
+                    return rows.apply(++index);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.myvlog.blog.cache.CommentTreeCache;
+import com.myvlog.blog.dto.CommentAdminDto;
+import com.myvlog.blog.dto.CommentResponse;
+import com.myvlog.blog.dto.CursorPage;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.entity.Comment;
+import com.myvlog.blog.entity.User;
+import com.myvlog.blog.enums.CommentStatus;
+import com.myvlog.blog.exception.BusinessException;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.mapper.CommentMapper;
+import com.myvlog.blog.mapper.UserMapper;
+import com.myvlog.blog.security.AuthUser;
+import com.myvlog.blog.stats.HotRanking;
+import com.myvlog.blog.stats.TrafficStats;
+import com.myvlog.blog.utils.CursorUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentServiceImplTest {
+
+    @Mock private CommentMapper commentMapper;
+    @Mock private ArticleMapper articleMapper;
+    @Mock private UserMapper userMapper;
+    @Mock private HotRanking hotRanking;
+    @Mock private TrafficStats trafficStats;
+    @Spy private CommentTreeCache commentTreeCache = new CommentTreeCache(new SimpleMeterRegistry(), 60, 100);
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Article.class);
+        TableInfoHelper.initTableInfo(assistant, Comment.class);
+        TableInfoHelper.initTableInfo(assistant, User.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(commentService, "baseMapper", commentMapper);
+    }
+
+    @Test
+    public void testTreeIsBuiltWithOneUserQueryAndCached() {
+        List<Comment> comments = List.of(
+                comment(1, null, 10L),
+                comment(2, 1L, 11L),
+                comment(3, 2L, 10L),
+                comment(4, null, null),
+                comment(5, 99L, 11L));
+        when(commentMapper.selectList(any())).thenReturn(comments);
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(10), user(11)));
+
+        List<CommentResponse> roots = commentService.getCommentsByArticleId(7L);
+        commentService.getCommentsByArticleId(7L);
+
+        assertEquals(2, roots.size());
+        CommentResponse first = roots.get(0);
+        assertEquals("user10", first.getUser().getUsername());
+        assertEquals(2L, first.getReplies().get(0).getId());
+        assertEquals("user10", first.getReplies().get(0).getReplies().get(0).getUser().getUsername());
+        assertNull(roots.get(1).getUser());
+
+        verify(commentMapper, times(1)).selectList(any());
+        verify(userMapper, times(1)).selectBatchIds(anyCollection());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @Test
+    public void testDeepThreadDoesNotRecurse() {
+        List<Comment> comments = new ArrayList<>();
+        comments.add(comment(1, null, null));
+        for (long id = 2; id <= 50_000; id++) {
+            comments.add(comment(id, id - 1, null));
+        }
+        when(commentMapper.selectList(any())).thenReturn(comments);
+
+        List<CommentResponse> roots = commentService.getCommentsByArticleId(7L);
+
+        CommentResponse node = roots.get(0);
+        int depth = 1;
+        while (!node.getReplies().isEmpty()) {
+            node = node.getReplies().get(0);
+            depth++;
+        }
+        assertEquals(50_000, depth);
+    }
+
+    @Test
+    public void testAuditInvalidatesTreeAndAdjustsCount() {
+        when(commentMapper.selectList(any())).thenReturn(List.of(comment(1, null, null)));
+        commentService.getCommentsByArticleId(7L);
+
+        when(commentMapper.selectById(1L)).thenReturn(comment(1, null, null));
+        when(commentMapper.update(any(), any())).thenReturn(1);
+        auditAsAdmin(1L, "rejected");
+        commentService.getCommentsByArticleId(7L);
+
+        verify(commentMapper, times(2)).selectList(any());
+        verify(articleMapper, times(1)).update(any(), any());
+    }
+
+    @Test
+    public void testLosingAuditRaceLeavesCountAlone() {
+        Comment pending = comment(1, null, null);
+        pending.setStatus(CommentStatus.PENDING);
+        when(commentMapper.selectById(1L)).thenReturn(pending);
+        // Another moderator already moved it out of PENDING
+        when(commentMapper.update(any(), any())).thenReturn(0);
+
+        auditAsAdmin(1L, "approved");
+
+        verify(articleMapper, never()).update(any(), any());
+    }
+
+    private void auditAsAdmin(Long id, String status) {
+        AuthUser admin = new AuthUser(1L, "admin", "", true, "admin", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(admin, null, List.of()));
+        try {
+            commentService.auditComment(id, status);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    public void testThreadPageCarriesReplyCountsAndCursor() {
+        when(commentMapper.selectList(any())).thenReturn(new ArrayList<>(List.of(
+                comment(1, null, null), comment(2, null, null), comment(3, null, null))));
+        when(commentMapper.countApprovedReplies(eq(7L), anyCollection()))
+                .thenReturn(List.of(Map.of("parentId", BigInteger.ONE, "replyCount", 4L)));
+
+        CursorPage<CommentResponse> page = commentService.getCommentThreads(7L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(4L, page.getItems().get(0).getReplyCount());
+        assertEquals(0L, page.getItems().get(1).getReplyCount());
+        CursorUtils.Position next = CursorUtils.decode(page.getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(page.getItems().get(1).getCreatedAt(), next.getCreatedAt());
+
+        assertThrows(BusinessException.class, () -> commentService.getCommentThreads(7L, "not-a-cursor", 2));
+    }
+
+    @Test
+    public void testModerationFeedResolvesRelationsInBatches() {
+        when(commentMapper.selectList(any())).thenReturn(new ArrayList<>(List.of(
+                comment(3, null, 10L), comment(2, null, 11L), comment(1, null, 10L))));
+        Article article = new Article();
+        article.setId(7L);
+        article.setTitle("Hello");
+        when(articleMapper.selectList(any())).thenReturn(List.of(article));
+        when(userMapper.selectList(any())).thenReturn(List.of(user(10), user(11)));
+
+        CursorPage<CommentAdminDto> page = commentService.getCommentFeed("pending", 7L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals("Hello", page.getItems().get(0).getArticleTitle());
+        assertEquals("user11", page.getItems().get(1).getUsername());
+        verify(articleMapper, times(1)).selectList(any());
+        verify(userMapper, times(1)).selectList(any());
+        verify(articleMapper, never()).selectById(any());
+        verify(userMapper, never()).selectById(any());
+    }
+
+    @Test
+    public void testDeleteReportsRecountedDeltaToHotRanking() {
+        when(commentMapper.selectById(1L)).thenReturn(comment(1, null, 10L));
+        when(commentMapper.deleteById(1L)).thenReturn(1);
+        when(articleMapper.selectOne(any())).thenReturn(commented(5), commented(2));
+
+        // The reply subtree goes too, so the recount drops by more than one
+        commentService.deleteComment(1L, user(10));
+
+        verify(articleMapper).recountComments(7L);
+        verify(hotRanking).onComment(7L, -3);
+    }
+
+    private static Article commented(int commentCount) {
+        Article article = new Article();
+        article.setId(7L);
+        article.setCommentCount(commentCount);
+        return article;
+    }
+
+    private static Comment comment(long id, Long parentId, Long userId) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setArticleId(7L);
+        comment.setParentId(parentId);
+        comment.setUserId(userId);
+        comment.setStatus(CommentStatus.APPROVED);
+        comment.setCreatedAt(LocalDateTime.now());
+        return comment;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
@@ -0,0 +1,62 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.search.SearchHit;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class MemorySearchServiceImplTest {
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Article.class);
+    }
+
+    @Test
+    public void testFilteredHitsDoNotCrowdOutVisibleOnes() {
+        ArticleMapper articleMapper = mock(ArticleMapper.class);
+        MemorySearchServiceImpl searchService = new MemorySearchServiceImpl(articleMapper);
+        for (long id = 1; id <= 40; id++) {
+            // Lower ids mention the keyword more often and rank first
+            searchService.index(article(id, "猫咪 ".repeat((int) (41 - id))));
+        }
+        // Only every tenth article passes the caller's filter
+        when(articleMapper.selectIdsMatching(anyCollection(), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id % 10 == 0).collect(Collectors.toList());
+        });
+        LambdaQueryWrapper<Article> filter = new LambdaQueryWrapper<Article>().eq(Article::getCategoryId, 3L);
+
+        List<SearchHit> hits = searchService.search("猫咪", 3, filter);
+
+        assertEquals(List.of(10L, 20L, 30L), hits.stream().map(SearchHit::getArticleId).collect(Collectors.toList()));
+        // Candidate window widened 3 -> 12 -> 48, each round checking only the new candidates
+        verify(articleMapper, times(3)).selectIdsMatching(anyCollection(), any());
+
+        // Without a filter nothing is checked against the database
+        assertEquals(3, searchService.search("猫咪", 3, new LambdaQueryWrapper<>()).size());
+        verify(articleMapper, times(3)).selectIdsMatching(anyCollection(), any());
+    }
+
+    private static Article article(long id, String content) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("Article " + id);
+        article.setContent(content);
+        return article;
+    }
+}
@@ -0,0 +1,36 @@
+package com.myvlog.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.mapper.ArticleMapper;
+import com.myvlog.blog.search.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MysqlSearchServiceImplTest {
+
+    @Test
+    public void testShortKeywordFallsBackToLike() {
+        ArticleMapper articleMapper = mock(ArticleMapper.class);
+        MysqlSearchServiceImpl searchService = new MysqlSearchServiceImpl(articleMapper);
+        LambdaQueryWrapper<Article> filter = new LambdaQueryWrapper<>();
+        Map<String, Object> row = Map.of("id", 7L, "title", "猫", "summary", "关于猫", "relevance", 0);
+        when(articleMapper.searchLike(eq("猫"), eq(20), same(filter))).thenReturn(List.of(row));
+
+        // One CJK character is below the ngram token size, so FULLTEXT could not match it
+        List<SearchHit> hits = searchService.search(" 猫 ", 20, filter);
+
+        assertEquals(1, hits.size());
+        assertEquals(7L, hits.get(0).getArticleId());
+        verify(articleMapper, never()).searchFullText(anyString(), anyInt(), any());
+
+        searchService.search("猫咪", 20, filter);
+        verify(articleMapper).searchFullText("猫咪", 20, filter);
+    }
+}
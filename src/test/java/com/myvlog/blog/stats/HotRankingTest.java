@@ -0,0 +1,103 @@
+package com.myvlog.blog.stats;
+
+import com.myvlog.blog.entity.Article;
+import com.myvlog.blog.enums.ArticleStatus;
+import com.myvlog.blog.enums.ArticleVisibility;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class HotRankingTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ViewCountBuffer viewCountBuffer;
+    private HotRanking ranking;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(List.of());
+        viewCountBuffer = new ViewCountBuffer(jdbcTemplate, new SimpleMeterRegistry());
+        ranking = new HotRanking(jdbcTemplate, viewCountBuffer, new SimpleMeterRegistry(), 2);
+        ranking.reload();
+    }
+
+    @Test
+    public void testEventsPromoteIntoTopAfterRefresh() {
+        ranking.track(article(1, 100, false));
+        ranking.track(article(2, 50, false));
+        ranking.track(article(3, 10, false));
+        ranking.refresh();
+        assertEquals(List.of(1L, 2L), ranking.page(0, 2));
+
+        for (int i = 0; i < 200; i++) {
+            ranking.onView(3L);
+        }
+        ranking.refresh();
+
+        assertEquals(List.of(3L, 1L), ranking.page(0, 2));
+        // Beyond the ranked top the caller must fall back to the database
+        assertNull(ranking.page(2, 2));
+    }
+
+    @Test
+    public void testPinnedFirstAndUnlistedDropped() {
+        ranking.track(article(1, 100, false));
+        ranking.track(article(2, 0, true));
+        ranking.refresh();
+        assertEquals(List.of(2L, 1L), ranking.page(0, 2));
+
+        Article hidden = article(2, 0, true);
+        hidden.setVisibility(ArticleVisibility.PRIVATE);
+        ranking.track(hidden);
+        ranking.refresh();
+
+        assertEquals(List.of(1L), ranking.page(0, 2));
+        assertEquals(1, ranking.total());
+    }
+
+    @Test
+    public void testTrackWaitsForCommitAndCountsBufferedViews() {
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ranking.track(article(1, 100, false));
+            assertEquals(0, ranking.total());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ranking.refresh();
+
+        assertEquals(1, ranking.total());
+        assertEquals(102, ranking.top(1).get(0).getViews());
+    }
+
+    private static Article article(long id, int views, boolean top) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("article " + id);
+        article.setStatus(ArticleStatus.PUBLISHED);
+        article.setVisibility(ArticleVisibility.PUBLIC);
+        article.setViewCount(views);
+        article.setIsTop(top);
+        article.setPublishedAt(LocalDateTime.now().minusHours(1));
+        return article;
+    }
+}
@@ -0,0 +1,40 @@
+package com.myvlog.blog.stats;
+
+import com.myvlog.blog.dto.DashboardStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SiteStatsTest {
+
+    @Test
+    public void testSnapshotServesEventsBetweenRecomputes() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ViewCountBuffer viewCountBuffer = mock(ViewCountBuffer.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(3L);
+        when(jdbcTemplate.queryForObject(eq("SELECT COALESCE(SUM(view_count), 0) FROM articles"), eq(Long.class))).thenReturn(100L);
+        when(viewCountBuffer.pendingTotal()).thenReturn(7L);
+        SiteStats siteStats = new SiteStats(jdbcTemplate, viewCountBuffer);
+
+        DashboardStats first = siteStats.snapshot();
+        assertEquals(3L, first.getArticleCount());
+        assertEquals(107L, first.getTotalViews());
+        assertNotNull(first.getAsOf());
+
+        siteStats.adjust(SiteStats.Kind.ARTICLES, 1);
+        siteStats.adjust(SiteStats.Kind.USERS, -1);
+        siteStats.onView();
+        DashboardStats second = siteStats.snapshot();
+
+        assertEquals(4L, second.getArticleCount());
+        assertEquals(2L, second.getUserCount());
+        assertEquals(108L, second.getTotalViews());
+        assertEquals(first.getAsOf(), second.getAsOf());
+        // Only the first snapshot triggered a recompute: four counts and one sum
+        verify(jdbcTemplate, times(5)).queryForObject(anyString(), eq(Long.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.myvlog.blog.stats;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.myvlog.blog.dto.TrafficSeries;
+import com.myvlog.blog.entity.Statistics;
+import com.myvlog.blog.mapper.StatisticsMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TrafficStatsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private StatisticsMapper statisticsMapper;
+    private TrafficStats trafficStats;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Statistics.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        statisticsMapper = mock(StatisticsMapper.class);
+        trafficStats = new TrafficStats(jdbcTemplate, statisticsMapper, 14);
+    }
+
+    @Test
+    public void testHyperLogLogEstimatesWithinTwoPercent() {
+        HyperLogLog small = new HyperLogLog(14);
+        HyperLogLog large = new HyperLogLog(14);
+        // Fixed seed: the bound is about 2.5 standard errors, so random input fails now and then
+        Random random = new Random(20260301L);
+        for (int i = 0; i < 1000; i++) {
+            long hash = random.nextLong();
+            small.add(hash);
+            small.add(hash);
+        }
+        for (int i = 0; i < 200_000; i++) {
+            large.add(random.nextLong());
+        }
+
+        assertEquals(1000, small.estimate(), 20);
+        assertEquals(200_000, large.estimate(), 4000);
+    }
+
+    @Test
+    public void testFlushWritesDeltasInOneUpsert() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            trafficStats.onPageView("visitor" + (i % 3), now);
+        }
+        trafficStats.onArticleView();
+        trafficStats.onComment();
+
+        trafficStats.flush();
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(contains("ON DUPLICATE KEY UPDATE"), args.capture());
+        assertArrayEquals(new Object[]{now.toLocalDate(), 10L, 3L, 1L, 1L}, args.getValue());
+
+        // Nothing new, nothing written; later traffic is written as a delta
+        trafficStats.flush();
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+        trafficStats.onPageView("visitor0", now);
+        trafficStats.flush();
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertArrayEquals(new Object[]{now.toLocalDate(), 1L, 3L, 0L, 0L}, args.getValue());
+    }
+
+    @Test
+    public void testSeriesMergesUnflushedTrafficAndMinutes() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 30, 15);
+        trafficStats.onPageView("a", now.minusMinutes(5));
+        trafficStats.onPageView("b", now);
+        trafficStats.onPageView("b", now);
+        // Older than 24 hours, its ring slot must not leak into the series
+        trafficStats.onPageView("c", now.minusDays(1));
+
+        Statistics stored = new Statistics();
+        stored.setDate(LocalDate.of(2026, 3, 1));
+        stored.setPv(100);
+        stored.setUv(40);
+        stored.setArticleViews(7);
+        stored.setCommentCount(2);
+        when(statisticsMapper.selectList(any())).thenReturn(List.of(stored));
+
+        TrafficSeries series = trafficStats.series(7, now);
+
+        assertEquals(2, series.getDaily().size());
+        assertEquals(LocalDate.of(2026, 2, 28), series.getDaily().get(0).getDate());
+        assertEquals(1, series.getDaily().get(0).getPv());
+        assertEquals(103, series.getDaily().get(1).getPv());
+        assertEquals(40, series.getDaily().get(1).getUv());
+
+        List<TrafficSeries.MinutePoint> minutes = series.getMinutes();
+        assertEquals(TrafficStats.MINUTES, minutes.size());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 12, 30), minutes.get(minutes.size() - 1).getMinute());
+        assertEquals(2, minutes.get(minutes.size() - 1).getPv());
+        assertEquals(1, minutes.get(minutes.size() - 6).getPv());
+        assertEquals(3, minutes.stream().mapToLong(TrafficSeries.MinutePoint::getPv).sum());
+    }
+}
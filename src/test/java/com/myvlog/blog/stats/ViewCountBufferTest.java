@@ -0,0 +1,95 @@
+package com.myvlog.blog.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ViewCountBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry registry;
+    private ViewCountBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        registry = new SimpleMeterRegistry();
+        buffer = new ViewCountBuffer(jdbcTemplate, registry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesAggregatedDeltasInOneBatch() {
+        for (int i = 0; i < 5; i++) {
+            buffer.increment(2L);
+        }
+        buffer.increment(1L);
+        assertEquals(6, registry.get("article.views.pending").gauge().value());
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        List<Object[]> args = captor.getValue();
+        assertEquals(2, args.size());
+        assertArrayEquals(new Object[]{1L, 1L}, args.get(0));
+        assertArrayEquals(new Object[]{5L, 2L}, args.get(1));
+        assertEquals(0, buffer.pendingTotal());
+        assertEquals(1, registry.get("article.views.flush").timer().count());
+
+        // Nothing pending: no statement at all
+        buffer.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void testNoViewLostWhileFlushEvictsIdleArticles() throws InterruptedException {
+        AtomicLong written = new AtomicLong();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> args = inv.getArgument(1);
+            args.forEach(row -> written.addAndGet((Long) row[0]));
+            return new int[args.size()];
+        });
+        int threads = 4;
+        int views = 200_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                // Bursts over many ids, so articles keep going idle and being evicted mid-run
+                for (int i = 0; i < views; i++) {
+                    buffer.increment((long) (i / 100 % 500));
+                }
+                done.countDown();
+            }).start();
+        }
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            buffer.flush();
+        }
+        buffer.flush();
+
+        assertEquals((long) threads * views, written.get() + buffer.pendingTotal());
+    }
+
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down"));
+        buffer.increment(7L);
+        buffer.increment(7L);
+
+        buffer.flush();
+
+        assertEquals(2, buffer.pending(7L));
+    }
+}
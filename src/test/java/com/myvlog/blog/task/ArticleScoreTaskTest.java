@@ -0,0 +1,84 @@
+package com.myvlog.blog.task;
+
+import com.myvlog.blog.stats.ViewCountBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ArticleScoreTaskTest {
+
+    @Test
+    public void testChangeThresholdIsRelative() {
+        ArticleScoreTask task = new ArticleScoreTask(mock(JdbcTemplate.class), mock(ViewCountBuffer.class), new SimpleMeterRegistry(), 100, 0.01);
+
+        assertFalse(task.changed(10.0, 10.0));
+        assertFalse(task.changed(10.0, 10.05));
+        assertTrue(task.changed(10.0, 10.2));
+        assertTrue(task.changed(0.0, 0.001));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOnlyChangedScoresAreWrittenAndChunksAreKeyset() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ArticleScoreTask task = new ArticleScoreTask(jdbcTemplate, mock(ViewCountBuffer.class), registry, 2, 0.01);
+
+        // No views, likes or comments: score is 0, so a stored 0 is skipped and a stored 5 is rewritten
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), eq(2)))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), new long[]{1, 2}, new double[]{0, 5}));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2L), eq(2)))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), new long[]{3}, new double[]{0}));
+
+        task.calculateArticleScores();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(2L, batch.getValue().get(0)[1]);
+        assertEquals(1, registry.get("article.score.rows").tag("result", "updated").counter().count());
+        assertEquals(2, registry.get("article.score.rows").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBufferedViewsCountTowardsTheScore() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ViewCountBuffer viewCountBuffer = mock(ViewCountBuffer.class);
+        ArticleScoreTask task = new ArticleScoreTask(jdbcTemplate, viewCountBuffer, new SimpleMeterRegistry(), 2, 0.01);
+
+        // view_count is still 0 in the table, but 8 views are waiting in the buffer
+        when(viewCountBuffer.pending(1L)).thenReturn(8L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), eq(2)))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), new long[]{1}, new double[]{0}));
+
+        task.calculateArticleScores();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(8.0 / Math.pow(2, 1.5), (double) batch.getValue().get(0)[0], 1e-9);
+    }
+
+    private static <T> List<T> rows(RowMapper<T> mapper, long[] ids, double[] scores) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            when(rs.getLong("id")).thenReturn(ids[i]);
+            when(rs.getDouble("score")).thenReturn(scores[i]);
+            result.add(mapper.mapRow(rs, i));
+        }
+        return result;
+    }
+}
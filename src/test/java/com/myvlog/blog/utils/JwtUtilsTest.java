@@ -0,0 +1,123 @@
+package com.myvlog.blog.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilsTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = newJwtUtils(86400000L);
+    }
+
+    @Test
+    public void testVerifyReturnsCachedTokenForRepeatedToken() {
+        String token = jwtUtils.generateToken("alice");
+
+        JwtUtils.VerifiedToken first = jwtUtils.verify(token);
+        JwtUtils.VerifiedToken second = jwtUtils.verify(token);
+
+        assertEquals("alice", first.subject());
+        assertSame(first, second);
+        assertTrue(first.expiration().isAfter(Instant.now()));
+        assertTrue(jwtUtils.isTokenValid(first, user("alice")));
+        assertFalse(jwtUtils.isTokenValid(first, user("bob")));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        String token = jwtUtils.generateToken("alice");
+        jwtUtils.verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(SignatureException.class, () -> jwtUtils.verify(tampered));
+    }
+
+    @Test
+    public void testExpiredCachedTokenIsReverified() throws InterruptedException {
+        JwtUtils shortLived = newJwtUtils(2000L);
+        String token = shortLived.generateToken("alice");
+        assertEquals("alice", shortLived.verify(token).subject());
+
+        // exp is stored with second precision
+        Thread.sleep(2100);
+
+        assertThrows(ExpiredJwtException.class, () -> shortLived.verify(token));
+    }
+
+    /**
+     * Opt-in comparison with the previous path, which decoded the key and built a parser
+     * per call and parsed the token three times per request:
+     * mvn test -Dtest=JwtUtilsTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkVerifyAgainstPerCallParsing() {
+        String[] tokens = new String[64];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtUtils.generateToken("user" + i);
+        }
+        int iterations = 20_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                String token = tokens[i & 63];
+                String username = legacyClaims(token).getSubject();
+                boolean valid = username.equals(legacyClaims(token).getSubject())
+                        && !legacyClaims(token).getExpiration().before(new Date());
+                assertTrue(valid);
+            }
+            long legacyNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                String token = tokens[i & 63];
+                JwtUtils.VerifiedToken verified = jwtUtils.verify(token);
+                assertTrue(jwtUtils.isTokenValid(verified, user(verified.subject())));
+            }
+            long cachedNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: per-call parsing %.2f us/op, verify %.2f us/op%n", round,
+                    legacyNanos / 1000.0 / iterations, cachedNanos / 1000.0 / iterations);
+        }
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    private static JwtUtils newJwtUtils(long expiration) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "secretKey", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpiration", expiration);
+        utils.init();
+        return utils;
+    }
+
+    private static UserDetails user(String username) {
+        return new User(username, "", Collections.emptyList());
+    }
+}
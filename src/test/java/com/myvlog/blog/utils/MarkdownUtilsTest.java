@@ -1,10 +1,24 @@
 package com.myvlog.blog.utils;
 
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Heading;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MarkdownUtilsTest {
 
+    // Link regex the dead-link scan used to run over raw markdown
+    private static final Pattern LEGACY_URL_PATTERN = Pattern.compile("(https?://[^\\s\\)\\]\"']+)");
+
     @Test
     public void testRenderHtml() {
         String markdown = "# Hello\n\nThis is **bold** and *italic*.";
@@ -52,4 +66,128 @@ public class MarkdownUtilsTest {
         assertEquals("toc-0", toc.get(0).getId());
         assertEquals("toc-1", toc.get(1).getId());
     }
+
+    @Test
+    public void testSinglePassRender() {
+        String markdown = "# 标题 One\n\nSee [docs](https://example.com/docs) and https://example.org/page.\n\n## Two\n\n`code` here";
+        MarkdownUtils.RenderResult result = MarkdownUtils.render(markdown);
+
+        assertEquals(MarkdownUtils.renderHtml(markdown), result.getHtml());
+        assertEquals(2, result.getToc().size());
+        assertEquals("标题 One", result.getToc().get(0).getText());
+        assertEquals("toc-1", result.getToc().get(1).getId());
+        assertEquals(2, result.getToc().get(1).getLevel());
+
+        // 标,题,One,See,docs,and,https,example,org,page,Two,code,here
+        // (link destinations are not counted, bare URLs in text are)
+        assertEquals(13, result.getWordCount());
+        assertEquals(2, result.getLinks().size());
+        assertTrue(result.getLinks().contains("https://example.com/docs"));
+        assertTrue(result.getLinks().contains("https://example.org/page"));
+    }
+
+    @Test
+    public void testBareUrlDropsTrailingPunctuation() {
+        String markdown = "Docs: https://example.org/a, https://example.org/b?x=1! 见https://example.cn/c。";
+
+        assertEquals(List.of("https://example.org/a", "https://example.org/b?x=1", "https://example.cn/c"),
+                MarkdownUtils.render(markdown).getLinks());
+    }
+
+    @Test
+    public void testLinksInRawHtml() {
+        String markdown = "<div>\n<a href=\"https://example.com/block\">block</a>\n</div>\n\n"
+                + "Inline <img src='https://example.com/img.png'> and <a href=/local>local</a>";
+
+        List<String> links = MarkdownUtils.render(markdown).getLinks();
+
+        assertEquals(List.of("https://example.com/block", "https://example.com/img.png"), links);
+    }
+
+    @Test
+    public void testRenderEmpty() {
+        MarkdownUtils.RenderResult result = MarkdownUtils.render("");
+        assertEquals("", result.getHtml());
+        assertTrue(result.getToc().isEmpty());
+        assertEquals(0, result.getWordCount());
+        assertTrue(result.getLinks().isEmpty());
+    }
+
+    @Test
+    public void testRepeatedRendersRestartHeadingIds() {
+        String markdown = "# A\n\n# B";
+        MarkdownUtils.render(markdown);
+        String html = MarkdownUtils.render(markdown).getHtml();
+
+        assertTrue(html.contains("<h1 id=\"toc-0\">A</h1>"));
+        assertTrue(html.contains("<h1 id=\"toc-1\">B</h1>"));
+    }
+
+    /**
+     * Opt-in comparison with the previous path, which built a Parser and HtmlRenderer per call,
+     * parsed once for HTML and again for the TOC, and ran the word-count and link regexes over
+     * the raw markdown:
+     * mvn test -Dtest=MarkdownUtilsTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkSingleParseAgainstThreeParsePath() {
+        StringBuilder sb = new StringBuilder();
+        for (int section = 0; section < 40; section++) {
+            sb.append("## 第").append(section).append("节 Section ").append(section).append("\n\n");
+            sb.append("正文内容 with **bold** text, a [link](https://example.com/").append(section)
+                    .append(") and https://example.org/bare/").append(section).append(".\n\n");
+            sb.append("| a | b |\n|---|---|\n| 1 | 2 |\n\n```java\nint x = ").append(section).append(";\n```\n\n");
+        }
+        String markdown = sb.toString();
+        int iterations = 2_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                String html = legacyRenderer().render(legacyParser().parse(markdown));
+                int[] headings = {0};
+                legacyParser().parse(markdown).accept(new AbstractVisitor() {
+                    @Override
+                    public void visit(Heading heading) {
+                        headings[0]++;
+                    }
+                });
+                int words = MarkdownUtils.countWords(markdown);
+                Matcher matcher = LEGACY_URL_PATTERN.matcher(markdown);
+                int links = 0;
+                while (matcher.find()) {
+                    links++;
+                }
+                assertTrue(!html.isEmpty() && headings[0] == 40 && words > 0 && links > 0);
+            }
+            long legacyNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                MarkdownUtils.RenderResult result = MarkdownUtils.render(markdown);
+                assertTrue(!result.getHtml().isEmpty() && result.getToc().size() == 40
+                        && result.getWordCount() > 0 && !result.getLinks().isEmpty());
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: three-parse path %.1f us/op, render %.1f us/op%n", round,
+                    legacyNanos / 1000.0 / iterations, singleNanos / 1000.0 / iterations);
+        }
+    }
+
+    private static Parser legacyParser() {
+        return Parser.builder().extensions(List.of(TablesExtension.create())).build();
+    }
+
+    private static HtmlRenderer legacyRenderer() {
+        return HtmlRenderer.builder()
+                .extensions(List.of(TablesExtension.create()))
+                .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                    if (node instanceof Heading) {
+                        attributes.put("id", "toc");
+                    }
+                })
+                .build();
+    }
 }